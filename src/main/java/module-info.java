@@ -4,6 +4,8 @@ module org.alexw.gamecurator {
     requires java.net.http;
     requires com.google.gson;        
     requires java.prefs;
+    requires java.sql;
+    requires org.xerial.sqlitejdbc;
     requires org.kordamp.ikonli.javafx;
     requires org.kordamp.ikonli.materialdesign;
     requires javafx.controls;
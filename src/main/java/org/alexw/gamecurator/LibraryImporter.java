@@ -0,0 +1,169 @@
+package org.alexw.gamecurator;
+
+import com.google.gson.JsonObject;
+import org.alexw.gamecurator.misc.APIClient;
+import org.alexw.gamecurator.misc.CacheManager;
+import org.alexw.gamecurator.misc.RequestScheduler;
+import org.alexw.gamecurator.misc.TitleMatcher;
+import org.alexw.gamecurator.util.BoundedWindow;
+import org.alexw.gamecurator.util.FutureUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+public class LibraryImporter {
+
+    public static final int DEFAULT_CONCURRENCY = 4;
+
+    private final LibraryManager libraryManager;
+    private final TitleMatcher titleMatcher;
+    private final BiFunction<String, Map<String, String>, CompletableFuture<String>> search;
+    private final int concurrency;
+
+    public LibraryImporter(LibraryManager libraryManager) {
+        this(libraryManager, new TitleMatcher(),
+                (title, pendingWrites) -> APIClient.searchGames(title, RequestScheduler.Lane.BULK, pendingWrites), DEFAULT_CONCURRENCY);
+    }
+
+    LibraryImporter(LibraryManager libraryManager, TitleMatcher titleMatcher,
+                    BiFunction<String, Map<String, String>, CompletableFuture<String>> search, int concurrency) {
+        this.libraryManager = libraryManager;
+        this.titleMatcher = titleMatcher;
+        this.search = search;
+        this.concurrency = Math.max(1, concurrency);
+    }
+
+    public static List<String> readTitles(Reader reader) throws IOException {
+        List<String> titles = new ArrayList<>();
+        BufferedReader in = (reader instanceof BufferedReader) ? (BufferedReader) reader : new BufferedReader(reader);
+        String line;
+        while ((line = in.readLine()) != null) {
+            String title = line.trim();
+            if (!title.isEmpty() && !title.startsWith("#")) {
+                titles.add(title);
+            }
+        }
+        return titles;
+    }
+
+    public CompletableFuture<Result> importTitles(List<String> titles) {
+        long startNanos = System.nanoTime();
+        Map<String, String> uniqueTitles = new LinkedHashMap<>();
+        for (String title : titles) {
+            String key = title.trim().toLowerCase();
+            if (!key.isEmpty()) {
+                uniqueTitles.putIfAbsent(key, title.trim());
+            }
+        }
+
+        ImportRun run = new ImportRun();
+        System.out.println("Importing " + uniqueTitles.size() + " unique titles (" + titles.size() + " lines) with concurrency " + concurrency + ".");
+
+        return BoundedWindow.run(new ArrayList<>(uniqueTitles.values()), concurrency,
+                title -> search.apply(title, run.pendingCacheWrites),
+                (index, title, json, error) -> record(run, title, json, error))
+                .thenApply(ignored -> {
+                    CacheManager.putAll(run.pendingCacheWrites);
+                    LibraryManager.Changes changes = libraryManager.addAll(run.matches);
+                    Result result = new Result(titles.size(), uniqueTitles.size(), run.matches.size(),
+                            run.matches.size() - changes.getAddedIds().size(), run.unmatchedTitles, run.failedCount.get(),
+                            (System.nanoTime() - startNanos) / 1_000_000);
+                    System.out.println("Title import finished: " + result.describe());
+                    return result;
+                });
+    }
+
+    private void record(ImportRun run, String title, String json, Throwable error) {
+        if (error != null) {
+            System.err.println("Title lookup failed for '" + title + "': " + FutureUtils.unwrap(error).getMessage());
+            run.failedCount.incrementAndGet();
+            return;
+        }
+        JsonObject match = titleMatcher.bestMatch(title, APIClient.parseSearchResults(json));
+        if (match != null) {
+            run.matches.putIfAbsent(match.get("id").getAsInt(), match);
+        } else {
+            run.unmatchedTitles.add(title);
+        }
+    }
+
+    private static class ImportRun {
+        final Map<Integer, JsonObject> matches = new ConcurrentHashMap<>();
+        final List<String> unmatchedTitles = Collections.synchronizedList(new ArrayList<>());
+        final AtomicInteger failedCount = new AtomicInteger();
+        final Map<String, String> pendingCacheWrites = new ConcurrentHashMap<>();
+    }
+
+    public static class Result {
+        private final int totalTitles;
+        private final int uniqueTitles;
+        private final int matchedCount;
+        private final int alreadyInLibraryCount;
+        private final List<String> unmatchedTitles;
+        private final int failedCount;
+        private final long elapsedMillis;
+
+        Result(int totalTitles, int uniqueTitles, int matchedCount, int alreadyInLibraryCount,
+               List<String> unmatchedTitles, int failedCount, long elapsedMillis) {
+            this.totalTitles = totalTitles;
+            this.uniqueTitles = uniqueTitles;
+            this.matchedCount = matchedCount;
+            this.alreadyInLibraryCount = alreadyInLibraryCount;
+            this.unmatchedTitles = List.copyOf(unmatchedTitles);
+            this.failedCount = failedCount;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public int getTotalTitles() {
+            return totalTitles;
+        }
+
+        public int getUniqueTitles() {
+            return uniqueTitles;
+        }
+
+        public int getMatchedCount() {
+            return matchedCount;
+        }
+
+        public int getAlreadyInLibraryCount() {
+            return alreadyInLibraryCount;
+        }
+
+        public List<String> getUnmatchedTitles() {
+            return unmatchedTitles;
+        }
+
+        public int getFailedCount() {
+            return failedCount;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        public double getMatchRate() {
+            return uniqueTitles == 0 ? 0.0 : (double) matchedCount / uniqueTitles;
+        }
+
+        public double getTitlesPerSecond() {
+            return elapsedMillis == 0 ? uniqueTitles : uniqueTitles * 1000.0 / elapsedMillis;
+        }
+
+        public String describe() {
+            return String.format("%d of %d unique titles matched (%.1f%%), %d already in library, %d unmatched, %d failed, %.1f titles/s over %d ms",
+                    matchedCount, uniqueTitles, getMatchRate() * 100, alreadyInLibraryCount, unmatchedTitles.size(),
+                    failedCount, getTitlesPerSecond(), elapsedMillis);
+        }
+    }
+}
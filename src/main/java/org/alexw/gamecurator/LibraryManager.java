@@ -2,12 +2,27 @@ package org.alexw.gamecurator;
 
 import com.google.gson.Gson;
 import com.google.gson.JsonObject;
-import com.google.gson.reflect.TypeToken;
+import com.google.gson.JsonParser;
 import org.alexw.gamecurator.misc.CacheManager;
+import org.alexw.gamecurator.misc.LibraryStore;
+import org.alexw.gamecurator.util.IntSet;
 
-import java.lang.reflect.Type;
-import java.util.HashSet;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 import java.util.prefs.BackingStoreException;
 import java.util.prefs.Preferences;
 
@@ -16,36 +31,114 @@ public class LibraryManager {
     private static final String PREF_LIBRARY = "libraryItems";
     private final Preferences prefs;
     private final Gson gson;
+    private final LibraryStore store;
+    private final Object writeLock = new Object();
+    private volatile IntSet snapshot;
+    private LibraryStats.Tracker statsTracker;
+    private volatile LibraryStats stats;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
 
     public LibraryManager(Preferences prefs, Gson gson) {
+        this(prefs, gson, LibraryStore.openDefault());
+    }
+
+    public LibraryManager(Preferences prefs, Gson gson, LibraryStore store) {
         this.prefs = prefs;
         this.gson = gson;
+        this.store = store;
+    }
+
+    public IntSet getLibrarySnapshot() {
+        IntSet current = snapshot;
+        if (current == null) {
+            synchronized (writeLock) {
+                if (snapshot == null) {
+                    snapshot = loadLibraryItemIds();
+                }
+                current = snapshot;
+            }
+        }
+        return current;
+    }
+
+    public LibraryStats getLibraryStats() {
+        LibraryStats current = stats;
+        if (current == null) {
+            synchronized (writeLock) {
+                if (stats == null) {
+                    statsTracker = buildStatsTracker(getLibrarySnapshot());
+                    stats = statsTracker.snapshot();
+                    System.out.println("Library stats computed: " + stats);
+                }
+                current = stats;
+            }
+        }
+        return current;
+    }
+
+    private LibraryStats.Tracker buildStatsTracker(IntSet libraryIds) {
+        LibraryStats.Tracker tracker = new LibraryStats.Tracker();
+        libraryIds.forEach(gameId -> tracker.add(gameId, parseCachedGame(gameId)));
+        return tracker;
     }
 
     public Set<Integer> getLibraryItemIds() {
-        String json = prefs.get(PREF_LIBRARY, "[]");
+        return getLibrarySnapshot().toSet();
+    }
+
+    private IntSet loadLibraryItemIds() {
+        IntSet stored = store.loadIds();
+        IntSet loaded = migrateLegacyPreference(stored);
+        System.out.println("Library index loaded with " + loaded.size() + " games.");
+        return loaded;
+    }
+
+    private IntSet migrateLegacyPreference(IntSet stored) {
+        String json = prefs.get(PREF_LIBRARY, null);
+        if (json == null) {
+            return stored;
+        }
+        int[] legacyIds;
         try {
-            Type setType = new TypeToken<Set<Integer>>() {}.getType();
-            Set<Integer> ids = gson.fromJson(json, setType);
-            return (ids != null) ? ids : new HashSet<>();
+            legacyIds = gson.fromJson(json, int[].class);
         } catch (Exception e) {
-            System.err.println("Error reading library preferences: " + e.getMessage());
-            return new HashSet<>();
+            System.err.println("Error reading legacy library preferences: " + e.getMessage());
+            return stored;
+        }
+        if (legacyIds == null) {
+            legacyIds = new int[0];
+        }
+
+        int[] storedIds = stored.toArray();
+        int[] mergedIds = Arrays.copyOf(storedIds, storedIds.length + legacyIds.length);
+        System.arraycopy(legacyIds, 0, mergedIds, storedIds.length, legacyIds.length);
+        IntSet merged = IntSet.of(mergedIds);
+
+        if (store.addAll(legacyIds)) {
+            removeLegacyPreference();
+            System.out.println("Migrated " + legacyIds.length + " library games from preferences to the library store.");
+        }
+        return merged;
+    }
+
+    private void removeLegacyPreference() {
+        prefs.remove(PREF_LIBRARY);
+        try {
+            prefs.flush();
+        } catch (BackingStoreException e) {
+            System.err.println("Error saving library preferences: " + e.getMessage());
         }
     }
 
     public boolean addLibraryItem(int gameId, JsonObject gameData) {
-        Set<Integer> currentLibrary = getLibraryItemIds();
-        boolean added = currentLibrary.add(gameId);
+        boolean added = edit(edit -> edit.add(gameId, gameData)).getAddedIds().contains(gameId);
         if (added) {
-            saveLibraryItemIds(currentLibrary);
 
             if (gameData == null || !gameData.has("name") || !gameData.has("genres")) {
                 System.err.println("Warning: Caching game data for ID " + gameId + " without required fields (name, genres) for AI.");
             }
 
             if (gameData != null) {
-                 CacheManager.put("gameData_" + gameId, gameData.toString());
                  System.out.println("Added game " + gameId + " to library and cached data.");
             } else {
                  System.out.println("Added game " + gameId + " to library (no data provided to cache).");
@@ -55,31 +148,247 @@ public class LibraryManager {
     }
 
     public boolean removeLibraryItem(int gameId) {
-        Set<Integer> currentLibrary = getLibraryItemIds();
-        boolean removed = currentLibrary.remove(gameId);
+        boolean removed = edit(edit -> edit.remove(gameId)).getRemovedIds().contains(gameId);
         if (removed) {
-            saveLibraryItemIds(currentLibrary);
-            CacheManager.remove("gameData_" + gameId);
             System.out.println("Removed game " + gameId + " from library and cache.");
         }
         return removed;
     }
 
-    private void saveLibraryItemIds(Set<Integer> libraryItemIds) {
-        String json = gson.toJson(libraryItemIds);
-        prefs.put(PREF_LIBRARY, json);
+    public Changes addAll(Map<Integer, JsonObject> games) {
+        return edit(edit -> games.forEach(edit::add));
+    }
+
+    public Changes removeAll(Collection<Integer> gameIds) {
+        return edit(edit -> gameIds.forEach(edit::remove));
+    }
+
+    public Changes edit(Consumer<Edit> changes) {
+        Edit edit = new Edit();
+        changes.accept(edit);
+        return apply(edit);
+    }
+
+    // Single toggles are the common case, so they splice into the sorted ids instead of rebuilding the whole set.
+    private static IntSet nextSnapshot(IntSet current, int[] added, int[] removed, IntSet removedIds) {
+        if (added.length + removed.length == 1) {
+            return added.length == 1 ? current.with(added[0]) : current.without(removed[0]);
+        }
+        int[] kept = Arrays.stream(current.toArray()).filter(id -> !removedIds.contains(id)).toArray();
+        int[] next = Arrays.copyOf(kept, kept.length + added.length);
+        System.arraycopy(added, 0, next, kept.length, added.length);
+        return IntSet.of(next);
+    }
+
+    private Changes apply(Edit edit) {
+        IntSet addedIds;
+        IntSet removedIds;
+        synchronized (writeLock) {
+            IntSet current = getLibrarySnapshot();
+            int[] added = edit.additions.keySet().stream().mapToInt(Integer::intValue).filter(id -> !current.contains(id)).toArray();
+            int[] removed = edit.removals.stream().mapToInt(Integer::intValue).filter(current::contains).toArray();
+            if (added.length == 0 && removed.length == 0) {
+                return Changes.NONE;
+            }
+            if (!store.apply(added, removed)) {
+                throw new IllegalStateException("Your library change could not be saved (" + added.length + " added, "
+                        + removed.length + " removed), so it was not applied.");
+            }
+            addedIds = IntSet.of(added);
+            removedIds = IntSet.of(removed);
+
+            snapshot = nextSnapshot(current, added, removed, removedIds);
+
+            if (statsTracker != null) {
+                removedIds.forEach(statsTracker::remove);
+                addedIds.forEach(gameId -> {
+                    JsonObject gameData = edit.additions.get(gameId);
+                    statsTracker.add(gameId, gameData != null ? gameData : parseCachedGame(gameId));
+                });
+                stats = statsTracker.snapshot();
+            }
+        }
+
+        Map<String, String> cacheEntries = new HashMap<>();
+        addedIds.forEach(gameId -> {
+            JsonObject gameData = edit.additions.get(gameId);
+            if (gameData != null) {
+                cacheEntries.put("gameData_" + gameId, gameData.toString());
+            }
+        });
+        CacheManager.putAll(cacheEntries);
+        List<String> removedKeys = new ArrayList<>();
+        removedIds.forEach(gameId -> removedKeys.add("gameData_" + gameId));
+        CacheManager.removeAll(removedKeys);
+
+        System.out.println("Library edit applied: " + addedIds.size() + " added, " + removedIds.size() + " removed.");
+        Changes changes = new Changes(addedIds, removedIds);
+        fireChanged(changes);
+        return changes;
+    }
+
+    public int exportLibrary(Writer writer) throws IOException {
+        BufferedWriter out = (writer instanceof BufferedWriter) ? (BufferedWriter) writer : new BufferedWriter(writer);
+        int[] written = {0};
+        IOException[] failure = {null};
+        getLibrarySnapshot().forEach(gameId -> {
+            if (failure[0] != null) {
+                return;
+            }
+            JsonObject line = readCachedGame(gameId);
+            try {
+                out.write(line.toString());
+                out.newLine();
+                written[0]++;
+            } catch (IOException e) {
+                failure[0] = e;
+            }
+        });
+        if (failure[0] != null) {
+            throw failure[0];
+        }
+        out.flush();
+        System.out.println("Exported " + written[0] + " library games.");
+        return written[0];
+    }
+
+    public Changes importLibrary(Reader reader) throws IOException {
+        Edit edit = new Edit();
+        BufferedReader in = (reader instanceof BufferedReader) ? (BufferedReader) reader : new BufferedReader(reader);
+        int lineNumber = 0;
+        int skipped = 0;
+        String line;
+        while ((line = in.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                JsonObject game = JsonParser.parseString(line).getAsJsonObject();
+                int gameId = game.get("id").getAsInt();
+                edit.add(gameId, game.size() > 1 ? game : null);
+            } catch (RuntimeException e) {
+                System.err.println("Skipping invalid library import line " + lineNumber + ": " + e.getMessage());
+                skipped++;
+            }
+        }
+        Changes changes = apply(edit);
+        System.out.println("Imported " + changes.getAddedIds().size() + " new library games (" + skipped + " invalid lines skipped).");
+        return changes;
+    }
+
+    private JsonObject parseCachedGame(int gameId) {
+        String cachedGameJson = CacheManager.get("gameData_" + gameId);
+        if (cachedGameJson == null) {
+            return null;
+        }
         try {
-            prefs.flush();
-        } catch (BackingStoreException e) {
-            System.err.println("Error saving library preferences: " + e.getMessage());
+            return JsonParser.parseString(cachedGameJson).getAsJsonObject();
+        } catch (RuntimeException e) {
+            System.err.println("Ignoring invalid cached data for game " + gameId + ": " + e.getMessage());
+            return null;
         }
     }
 
+    private JsonObject readCachedGame(int gameId) {
+        JsonObject game = parseCachedGame(gameId);
+        if (game == null) {
+            game = new JsonObject();
+        }
+        if (!game.has("id")) {
+            game.addProperty("id", gameId);
+        }
+        return game;
+    }
+
     public boolean isInLibrary(int gameId) {
-        return getLibraryItemIds().contains(gameId);
+        return getLibrarySnapshot().contains(gameId);
     }
 
     public void clearLibrary() {
-        saveLibraryItemIds(new HashSet<>());
+        IntSet previous;
+        synchronized (writeLock) {
+            previous = getLibrarySnapshot();
+            if (!store.clear()) {
+                throw new IllegalStateException("Your library could not be cleared from the library store.");
+            }
+            snapshot = IntSet.empty();
+            statsTracker = null;
+            stats = null;
+            removeLegacyPreference();
+        }
+        if (!previous.isEmpty()) {
+            fireChanged(new Changes(IntSet.empty(), previous));
+        }
+    }
+
+    public void close() {
+        synchronized (writeLock) {
+            store.close();
+        }
+    }
+
+    public void addChangeListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeChangeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    private void fireChanged(Changes changes) {
+        for (Listener listener : listeners) {
+            try {
+                listener.onLibraryChanged(changes);
+            } catch (RuntimeException e) {
+                System.err.println("Library change listener failed: " + e.getMessage());
+                e.printStackTrace();
+            }
+        }
+    }
+
+    public interface Listener {
+        void onLibraryChanged(Changes changes);
+    }
+
+    public static class Edit {
+        private final Map<Integer, JsonObject> additions = new LinkedHashMap<>();
+        private final Set<Integer> removals = new LinkedHashSet<>();
+
+        public Edit add(int gameId, JsonObject gameData) {
+            removals.remove(gameId);
+            additions.put(gameId, gameData);
+            return this;
+        }
+
+        public Edit remove(int gameId) {
+            additions.remove(gameId);
+            removals.add(gameId);
+            return this;
+        }
+    }
+
+    public static class Changes {
+        static final Changes NONE = new Changes(IntSet.empty(), IntSet.empty());
+
+        private final IntSet addedIds;
+        private final IntSet removedIds;
+
+        Changes(IntSet addedIds, IntSet removedIds) {
+            this.addedIds = addedIds;
+            this.removedIds = removedIds;
+        }
+
+        public IntSet getAddedIds() {
+            return addedIds;
+        }
+
+        public IntSet getRemovedIds() {
+            return removedIds;
+        }
+
+        public boolean isEmpty() {
+            return addedIds.isEmpty() && removedIds.isEmpty();
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,268 @@
+package org.alexw.gamecurator;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+public final class LibraryStats {
+
+    public static final int RATING_BUCKETS = 5;
+
+    static final LibraryStats EMPTY = new LibraryStats(0, 0, Map.of(), Map.of(), 0L, 0, 0.0,
+            new int[RATING_BUCKETS], 0, new TreeMap<>());
+
+    private final int gameCount;
+    private final int analyzedCount;
+    private final Map<String, Integer> genreCounts;
+    private final Map<String, Integer> platformCounts;
+    private final long totalPlaytimeHours;
+    private final int playtimeCount;
+    private final double medianPlaytimeHours;
+    private final int[] ratingBuckets;
+    private final int unratedCount;
+    private final SortedMap<Integer, Integer> releaseYearCounts;
+
+    private LibraryStats(int gameCount, int analyzedCount, Map<String, Integer> genreCounts,
+                         Map<String, Integer> platformCounts, long totalPlaytimeHours, int playtimeCount,
+                         double medianPlaytimeHours, int[] ratingBuckets, int unratedCount,
+                         SortedMap<Integer, Integer> releaseYearCounts) {
+        this.gameCount = gameCount;
+        this.analyzedCount = analyzedCount;
+        this.genreCounts = genreCounts;
+        this.platformCounts = platformCounts;
+        this.totalPlaytimeHours = totalPlaytimeHours;
+        this.playtimeCount = playtimeCount;
+        this.medianPlaytimeHours = medianPlaytimeHours;
+        this.ratingBuckets = ratingBuckets;
+        this.unratedCount = unratedCount;
+        this.releaseYearCounts = releaseYearCounts;
+    }
+
+    public int getGameCount() {
+        return gameCount;
+    }
+
+    public int getAnalyzedCount() {
+        return analyzedCount;
+    }
+
+    public Map<String, Integer> getGenreCounts() {
+        return genreCounts;
+    }
+
+    public List<String> getTopGenres(int limit) {
+        return new ArrayList<>(genreCounts.keySet()).subList(0, Math.min(limit, genreCounts.size()));
+    }
+
+    public Map<String, Integer> getPlatformCounts() {
+        return platformCounts;
+    }
+
+    public long getTotalPlaytimeHours() {
+        return totalPlaytimeHours;
+    }
+
+    public int getPlaytimeCount() {
+        return playtimeCount;
+    }
+
+    public double getMedianPlaytimeHours() {
+        return medianPlaytimeHours;
+    }
+
+    public int getRatingBucketCount(int bucket) {
+        return ratingBuckets[bucket];
+    }
+
+    public int getUnratedCount() {
+        return unratedCount;
+    }
+
+    public SortedMap<Integer, Integer> getReleaseYearCounts() {
+        return releaseYearCounts;
+    }
+
+    @Override
+    public String toString() {
+        return "LibraryStats{games=" + gameCount + ", analyzed=" + analyzedCount + ", genres=" + genreCounts
+                + ", platforms=" + platformCounts.size() + ", totalPlaytime=" + totalPlaytimeHours
+                + "h, medianPlaytime=" + medianPlaytimeHours + "h}";
+    }
+
+    static class Tracker {
+        private final Map<Integer, GameFacts> factsByGame = new HashMap<>();
+        private final Map<String, Integer> genreCounts = new HashMap<>();
+        private final Map<String, Integer> platformCounts = new HashMap<>();
+        private final TreeMap<Integer, Integer> playtimeCounts = new TreeMap<>();
+        private final int[] ratingBuckets = new int[RATING_BUCKETS];
+        private final TreeMap<Integer, Integer> releaseYearCounts = new TreeMap<>();
+        private int gameCount;
+        private int analyzedCount;
+        private long totalPlaytimeHours;
+        private int playtimeCount;
+        private int unratedCount;
+
+        void add(int gameId, JsonObject gameData) {
+            if (factsByGame.containsKey(gameId)) {
+                remove(gameId);
+            }
+            GameFacts facts = gameData == null ? null : GameFacts.from(gameData);
+            factsByGame.put(gameId, facts);
+            gameCount++;
+            if (facts != null) {
+                apply(facts, 1);
+            }
+        }
+
+        void remove(int gameId) {
+            if (!factsByGame.containsKey(gameId)) {
+                return;
+            }
+            GameFacts facts = factsByGame.remove(gameId);
+            gameCount--;
+            if (facts != null) {
+                apply(facts, -1);
+            }
+        }
+
+        private void apply(GameFacts facts, int delta) {
+            analyzedCount += delta;
+            for (String genre : facts.genres) {
+                adjust(genreCounts, genre, delta);
+            }
+            for (String platform : facts.platforms) {
+                adjust(platformCounts, platform, delta);
+            }
+            if (facts.playtime >= 0) {
+                adjust(playtimeCounts, facts.playtime, delta);
+                totalPlaytimeHours += (long) facts.playtime * delta;
+                playtimeCount += delta;
+            }
+            if (facts.rating > 0) {
+                ratingBuckets[Math.min(RATING_BUCKETS - 1, (int) facts.rating)] += delta;
+            } else {
+                unratedCount += delta;
+            }
+            if (facts.releaseYear > 0) {
+                adjust(releaseYearCounts, facts.releaseYear, delta);
+            }
+        }
+
+        private static <K> void adjust(Map<K, Integer> counts, K key, int delta) {
+            counts.merge(key, delta, (current, change) -> current + change == 0 ? null : current + change);
+        }
+
+        LibraryStats snapshot() {
+            return new LibraryStats(gameCount, analyzedCount, sortedByCount(genreCounts), sortedByCount(platformCounts),
+                    totalPlaytimeHours, playtimeCount, medianPlaytime(), ratingBuckets.clone(), unratedCount,
+                    Collections.unmodifiableSortedMap(new TreeMap<>(releaseYearCounts)));
+        }
+
+        private double medianPlaytime() {
+            if (playtimeCount == 0) {
+                return 0.0;
+            }
+            int lowerRank = (playtimeCount - 1) / 2;
+            int upperRank = playtimeCount / 2;
+            int seen = 0;
+            Integer lower = null;
+            for (Map.Entry<Integer, Integer> entry : playtimeCounts.entrySet()) {
+                seen += entry.getValue();
+                if (lower == null && seen > lowerRank) {
+                    lower = entry.getKey();
+                }
+                if (seen > upperRank) {
+                    return (lower + entry.getKey()) / 2.0;
+                }
+            }
+            return 0.0;
+        }
+
+        private static Map<String, Integer> sortedByCount(Map<String, Integer> counts) {
+            Map<String, Integer> sorted = new LinkedHashMap<>();
+            counts.entrySet().stream()
+                    .sorted(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                    .forEach(entry -> sorted.put(entry.getKey(), entry.getValue()));
+            return Collections.unmodifiableMap(sorted);
+        }
+    }
+
+    private static class GameFacts {
+        final List<String> genres;
+        final List<String> platforms;
+        final int playtime;
+        final double rating;
+        final int releaseYear;
+
+        private GameFacts(List<String> genres, List<String> platforms, int playtime, double rating, int releaseYear) {
+            this.genres = genres;
+            this.platforms = platforms;
+            this.playtime = playtime;
+            this.rating = rating;
+            this.releaseYear = releaseYear;
+        }
+
+        static GameFacts from(JsonObject game) {
+            return new GameFacts(readNames(game.get("genres"), null), readNames(game.get("platforms"), "platform"),
+                    readPlaytime(game), readRating(game), readReleaseYear(game));
+        }
+
+        private static List<String> readNames(JsonElement array, String wrapper) {
+            if (array == null || !array.isJsonArray()) {
+                return List.of();
+            }
+            List<String> names = new ArrayList<>();
+            for (JsonElement element : array.getAsJsonArray()) {
+                if (wrapper != null && element.isJsonObject()) {
+                    element = element.getAsJsonObject().get(wrapper);
+                }
+                if (element == null || !element.isJsonObject()) {
+                    continue;
+                }
+                JsonElement name = element.getAsJsonObject().get("name");
+                if (name != null && name.isJsonPrimitive() && !names.contains(name.getAsString())) {
+                    names.add(name.getAsString());
+                }
+            }
+            return names;
+        }
+
+        private static int readPlaytime(JsonObject game) {
+            JsonElement playtime = game.get("playtime");
+            if (playtime == null || !playtime.isJsonPrimitive() || !playtime.getAsJsonPrimitive().isNumber()) {
+                return -1;
+            }
+            return Math.max(0, playtime.getAsInt());
+        }
+
+        private static double readRating(JsonObject game) {
+            JsonElement rating = game.get("rating");
+            if (rating == null || !rating.isJsonPrimitive() || !rating.getAsJsonPrimitive().isNumber()) {
+                return 0.0;
+            }
+            return rating.getAsDouble();
+        }
+
+        private static int readReleaseYear(JsonObject game) {
+            JsonElement released = game.get("released");
+            if (released == null || !released.isJsonPrimitive()) {
+                return -1;
+            }
+            try {
+                return LocalDate.parse(released.getAsString()).getYear();
+            } catch (DateTimeParseException e) {
+                return -1;
+            }
+        }
+    }
+}
@@ -5,6 +5,8 @@ import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
 import javafx.scene.Parent;
 import javafx.stage.Stage;
+import org.alexw.gamecurator.misc.CompressedBodyHandler;
+import org.alexw.gamecurator.misc.ImageService;
 
 import java.io.IOException;
 
@@ -24,6 +26,7 @@ public class MainApplication extends Application {
     }
 
     public static Stage globalStage;
+    private MainController mainController;
 
     @Override
     public void start(Stage stage) throws IOException {
@@ -32,7 +35,16 @@ public class MainApplication extends Application {
         globalStage.setMinWidth(640);
         globalStage.setMinHeight(400);
 
-        switchView("MainView.fxml");
+        mainController = switchView("MainView.fxml").getController();
+    }
+
+    @Override
+    public void stop() {
+        if (mainController != null) {
+            mainController.close();
+        }
+        System.out.println("Transfer totals: " + CompressedBodyHandler.describeStats());
+        System.out.println("Image memory cache: " + ImageService.describeMemoryCacheStats());
     }
 
     public static void main(String[] args) {
@@ -18,13 +18,16 @@ import javafx.scene.input.Clipboard;
 import javafx.scene.input.ClipboardContent;
 import javafx.scene.layout.*;
 import org.alexw.gamecurator.misc.APIClient;
+import org.alexw.gamecurator.misc.RequestScheduler;
 import org.alexw.gamecurator.util.DialogUtils;
 import org.alexw.gamecurator.util.IconFactory;
+import org.alexw.gamecurator.util.ViewTaskExecutor;
 import org.alexw.gamecurator.view.*;
 import org.controlsfx.control.CheckComboBox;
 
 import java.net.URL;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.prefs.Preferences;
 import java.util.stream.Collectors;
 
@@ -40,6 +43,8 @@ public class MainController implements Initializable {
     @FXML private TextField maxPlaytimeFilterField;
     @FXML private Button clearFiltersButton;
 
+    private static final String PAGE_LOAD_SLOT = "page";
+
     private String currentPageId = "top_games";
     private Button currentNavButton = null;
     final Preferences prefs = Preferences.userNodeForPackage(MainController.class);
@@ -63,17 +68,18 @@ public class MainController implements Initializable {
     GameListViewFactory gameListViewFactory; 
 
     private final Map<String, ViewFactory> viewFactories = new HashMap<>();
+    private final Map<String, Parent> pageCache = new HashMap<>();
 
     @Override
     public void initialize(URL location, ResourceBundle resources) {
 
         libraryManager = new LibraryManager(prefs, gson);
-        gameItemNodeFactory = new GameItemNodeFactory(libraryManager, this);
+        gameItemNodeFactory = GameItemNodeFactory.create(libraryManager, this);
         gameListViewFactory = new GameListViewFactory(gameItemNodeFactory);
 
         viewFactories.put("search", new SearchViewFactory(gameItemNodeFactory));
         viewFactories.put("library", new LibraryViewFactory(libraryManager, gameItemNodeFactory));
-        viewFactories.put("assistant", new AssistantViewFactory(libraryManager, prefs));
+        viewFactories.put("assistant", new AssistantViewFactory(libraryManager, prefs, gameItemNodeFactory));
         viewFactories.put("settings", new SettingsViewFactory(prefs, libraryManager, this));
 
         setupNavigationBar();
@@ -82,6 +88,11 @@ public class MainController implements Initializable {
         switchPage(currentPageId);
     }
 
+    public void close() {
+        gameItemNodeFactory.close();
+        libraryManager.close();
+    }
+
      void setupNavigationBar() {
         navigationBox.getChildren().clear();
         for (PageInfo page : pages) {
@@ -178,8 +189,12 @@ public class MainController implements Initializable {
 
     private void applyFilters() {
 
-        if ("top_games".equals(currentPageId) || "new_games".equals(currentPageId)) {
-            refreshCurrentPageIf(currentPageId);
+        // Without a cached view the page is still loading (or came back empty); its load applies the current filters when it finishes.
+        if (isFilterablePage(currentPageId)) {
+            Parent cachedView = pageCache.get(currentPageId);
+            if (cachedView != null && !gameListViewFactory.applyFilters(cachedView, selectedGenres, minPlaytime, maxPlaytime)) {
+                refreshCurrentPageIf(currentPageId);
+            }
         }
 
         updateClearButtonState();
@@ -217,6 +232,7 @@ public class MainController implements Initializable {
     public void switchPage(String pageId) {
         System.out.println("Switching to page: " + pageId);
         this.currentPageId = pageId;
+        RequestScheduler.getInstance().cancelOnNavigation();
 
         Optional<PageInfo> pageInfo = pages.stream().filter(p -> p.getId().equals(pageId)).findFirst();
         titleLabel.setText(pageInfo.map(PageInfo::getTitle).orElse("Unknown Page"));
@@ -231,29 +247,44 @@ public class MainController implements Initializable {
             }
         }
 
-        boolean showFilters = "top_games".equals(pageId) || "new_games".equals(pageId);
+        boolean showFilters = isFilterablePage(pageId);
         if (filterBar != null) {
             filterBar.setVisible(showFilters);
             filterBar.setManaged(showFilters);
             updateClearButtonState();
         }
 
+        Parent cachedView = pageCache.get(pageId);
+        if (cachedView != null) {
+            System.out.println("Restoring cached view for page: " + pageId);
+            if (showFilters) {
+                gameListViewFactory.applyFilters(cachedView, selectedGenres, minPlaytime, maxPlaytime);
+            }
+            ViewTaskExecutor.cancel(PAGE_LOAD_SLOT);
+            showPageContent(cachedView);
+            gameItemNodeFactory.refreshLibraryButtons(cachedView);
+            return;
+        }
+
         contentPane.getChildren().clear();
         ProgressIndicator loadingIndicator = new ProgressIndicator(-1.0);
         loadingIndicator.setMaxSize(50, 50);
         contentPane.getChildren().add(loadingIndicator);
         StackPane.setAlignment(loadingIndicator, Pos.CENTER);
 
+        AtomicBoolean cacheable = new AtomicBoolean(true);
         Task<Parent> loadTask = new Task<>() {
             @Override
             protected Parent call() throws Exception {
 
                 if ("top_games".equals(pageId)) {
-                    String topJson = APIClient.getTopGames().join();
-                    return gameListViewFactory.createGameListView(topJson, selectedGenres, minPlaytime, maxPlaytime);
+                    String topJson = ViewTaskExecutor.await(APIClient.getTopGames());
+                    cacheable.set(!"[]".equals(topJson));
+                    return gameListViewFactory.createGameListView(topJson);
                 } else if ("new_games".equals(pageId)) {
-                    String newJson = APIClient.getNewGames().join();
-                    return gameListViewFactory.createGameListView(newJson, selectedGenres, minPlaytime, maxPlaytime);
+                    String newJson = ViewTaskExecutor.await(APIClient.getNewGames());
+                    cacheable.set(!"[]".equals(newJson));
+                    return gameListViewFactory.createGameListView(newJson);
                 } else {
 
                     ViewFactory factory = viewFactories.get(pageId);
@@ -262,6 +293,7 @@ public class MainController implements Initializable {
                     } else {
 
                         System.err.println("No view factory found for page ID: " + pageId);
+                        cacheable.set(false);
                         return new VBox(new Label("Content for " + pageId + " not implemented or factory missing."));
                     }
                 }
@@ -269,12 +301,21 @@ public class MainController implements Initializable {
         };
 
         loadTask.setOnSucceeded(event -> {
+            if (!ViewTaskExecutor.isCurrent(PAGE_LOAD_SLOT, loadTask)) {
+                System.out.println("Discarding stale load result for page: " + pageId);
+                return;
+            }
             Parent pageContent = loadTask.getValue();
-            contentPane.getChildren().clear();
             if (pageContent != null) {
-                contentPane.getChildren().add(pageContent);
-                StackPane.setAlignment(pageContent, Pos.TOP_LEFT);
+                if (showFilters) {
+                    gameListViewFactory.applyFilters(pageContent, selectedGenres, minPlaytime, maxPlaytime);
+                }
+                if (cacheable.get()) {
+                    pageCache.put(pageId, pageContent);
+                }
+                showPageContent(pageContent);
             } else {
+                 contentPane.getChildren().clear();
                  Label errorLabel = new Label("Error: Failed to load page content for " + pageId);
                  errorLabel.setStyle("-fx-text-fill: red;");
                  contentPane.getChildren().add(errorLabel);
@@ -283,6 +324,9 @@ public class MainController implements Initializable {
         });
 
         loadTask.setOnFailed(event -> {
+            if (!ViewTaskExecutor.isCurrent(PAGE_LOAD_SLOT, loadTask)) {
+                return;
+            }
             contentPane.getChildren().clear();
             Throwable ex = loadTask.getException();
             ex.printStackTrace();
@@ -293,22 +337,40 @@ public class MainController implements Initializable {
             StackPane.setAlignment(errorLabel, Pos.CENTER);
         });
 
-        new Thread(loadTask).start();
+        ViewTaskExecutor.submit(PAGE_LOAD_SLOT, loadTask);
     }
 
-    public void handleLibraryToggle(int gameId, JsonObject gameData) {
-        boolean wasInLibrary = libraryManager.isInLibrary(gameId);
-        boolean changed;
-        if (wasInLibrary) {
-            changed = libraryManager.removeLibraryItem(gameId);
-        } else {
-            changed = libraryManager.addLibraryItem(gameId, gameData);
+    private void showPageContent(Parent pageContent) {
+        contentPane.getChildren().setAll(pageContent);
+        StackPane.setAlignment(pageContent, Pos.TOP_LEFT);
+    }
+
+    private boolean isFilterablePage(String pageId) {
+        return "top_games".equals(pageId) || "new_games".equals(pageId);
+    }
+
+    public void invalidatePage(String pageId) {
+        if (pageCache.remove(pageId) != null) {
+            System.out.println("Invalidated cached view for page: " + pageId);
         }
-        if (changed) {
+    }
 
-             refreshCurrentPageIf("library");
+    public void invalidateAllPages() {
+        pageCache.clear();
+        System.out.println("Invalidated all cached page views.");
+    }
 
-             refreshCurrentPageIf("assistant");
+    public void handleLibraryToggle(int gameId, JsonObject gameData) {
+        boolean wasInLibrary = libraryManager.isInLibrary(gameId);
+        try {
+            if (wasInLibrary) {
+                libraryManager.removeLibraryItem(gameId);
+            } else {
+                libraryManager.addLibraryItem(gameId, gameData);
+            }
+        } catch (IllegalStateException e) {
+            System.err.println("Error updating library for game " + gameId + ": " + e.getMessage());
+            DialogUtils.showErrorDialog("Library Error", e.getMessage());
         }
     }
 
@@ -350,10 +412,14 @@ public class MainController implements Initializable {
     }
 
     public void refreshCurrentPageIf(String pageIdToRefresh) {
-        if (pageIdToRefresh != null && pageIdToRefresh.equals(this.currentPageId)) {
+        if (pageIdToRefresh == null) {
+            return;
+        }
+        invalidatePage(pageIdToRefresh);
+        if (pageIdToRefresh.equals(this.currentPageId)) {
             System.out.println("Refreshing current page due to filter change or external event: " + pageIdToRefresh);
 
             Platform.runLater(() -> switchPage(this.currentPageId));
         }
     }
-}
\ No newline at end of file
+}
@@ -10,17 +10,30 @@ import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.time.Duration;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.alexw.gamecurator.misc.CompressedBodyHandler;
 import org.alexw.gamecurator.misc.SettingsManager;
+import org.alexw.gamecurator.util.FutureUtils;
+import org.alexw.gamecurator.util.NamedThreadFactory;
 
 public class LLMClient {
 
     private static final String API_BASE_URL = "https://generativelanguage.googleapis.com/v1beta/openai";
     private static final String CHAT_COMPLETIONS_ENDPOINT = "/chat/completions";
     private static final String MODEL = "gemini-2.0-flash";
+    public static final int PROMPT_VERSION = 2;
     private static final Duration TIMEOUT = Duration.ofSeconds(60);
+    private static final Duration STREAM_TIMEOUT = Duration.ofSeconds(120);
 
     private static final HttpClient httpClient = HttpClient.newBuilder()
             .version(HttpClient.Version.HTTP_1_1)
@@ -29,6 +42,17 @@ public class LLMClient {
 
     private static final Gson gson = new Gson();
 
+    private static final ExecutorService streamExecutor = Executors.newCachedThreadPool(new NamedThreadFactory("llm-stream"));
+    private static final String RECOMMENDATIONS_SYSTEM_PROMPT = "Your task is to provide game recommendations based on the user's game library. First reason about it with a long chain of thoughts, then output a list of five game name strings the user might like. Do not output games the user already has in their library. Output in JSON only as follows: {\"reasoning\":\"(Your chain of thoughts here)\",\"answer\":[\"An array of five game name strings\"]}";
+
+    public static String getModel() {
+        return MODEL;
+    }
+
+    private static long firstTokenSamples;
+    private static long totalTimeToFirstTokenMillis;
+    private static long lastTimeToFirstTokenMillis = -1;
+
     private static class ChatMessage {
         String role;
         String content;
@@ -79,12 +103,18 @@ public class LLMClient {
                 .timeout(TIMEOUT)
                 .header("Content-Type", "application/json")
                 .header("Authorization", "Bearer " + apiKey)
+                .header("Accept-Encoding", CompressedBodyHandler.ACCEPT_ENCODING)
                 .POST(HttpRequest.BodyPublishers.ofString(requestBodyJson))
                 .build();
 
-        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
-                .thenApply(response -> {
-                    String responseBody = response.body();
+        return CompressedBodyHandler.consume(httpClient.sendAsync(request, CompressedBodyHandler.create()),
+                response -> {
+                    String responseBody;
+                    try {
+                        responseBody = CompressedBodyHandler.readString(response.body());
+                    } catch (IOException e) {
+                        throw new RuntimeException("Failed to read response body: " + e.getMessage(), e);
+                    }
                     if (response.statusCode() >= 200 && response.statusCode() < 300) {
                         try {
                             JsonObject jsonResponse = JsonParser.parseString(responseBody).getAsJsonObject();
@@ -108,28 +138,186 @@ public class LLMClient {
                 });
     }
 
-    public static CompletableFuture<GameRecommendations> getGameRecommendations(String userPrompt) {
+    private static CompletableFuture<String> streamChatCompletion(List<ChatMessage> messages, boolean requestJsonFormat, Consumer<String> onContent) {
+        String apiKey = SettingsManager.getLlmApiKey();
+        if (apiKey == null || apiKey.trim().isEmpty()) {
+            System.err.println("LLM API Key is missing. Please configure it in the settings.");
+            return CompletableFuture.failedFuture(new IOException("LLM API Key is not configured."));
+        }
+
+        Map<String, Object> requestBodyMap = new HashMap<>();
+        requestBodyMap.put("model", MODEL);
+        requestBodyMap.put("messages", messages);
+        requestBodyMap.put("stream", true);
+        if (requestJsonFormat) {
+            requestBodyMap.put("response_format", Map.of("type", "json_object"));
+        }
+
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(API_BASE_URL + CHAT_COMPLETIONS_ENDPOINT))
+                .timeout(TIMEOUT)
+                .header("Content-Type", "application/json")
+                .header("Authorization", "Bearer " + apiKey)
+                .header("Accept", "text/event-stream")
+                .POST(HttpRequest.BodyPublishers.ofString(gson.toJson(requestBodyMap)))
+                .build();
+
+        long startNanos = System.nanoTime();
+        return consumeEventStream(httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofLines()), STREAM_TIMEOUT, startNanos, onContent);
+    }
 
+    // HttpRequest.timeout only covers the wait for response headers, so the whole stream gets its own deadline.
+    // Cancelling, timing out or failing closes the body and interrupts the reader, which may be blocked on a silent server.
+    static CompletableFuture<String> consumeEventStream(CompletableFuture<HttpResponse<Stream<String>>> exchange, Duration timeout,
+                                                        long startNanos, Consumer<String> onContent) {
+        CompletableFuture<String> result = new CompletableFuture<>();
+        AtomicReference<Thread> reader = new AtomicReference<>();
+        exchange.whenComplete((response, error) -> {
+            if (error != null) {
+                result.completeExceptionally(error);
+                return;
+            }
+            streamExecutor.execute(() -> {
+                synchronized (reader) {
+                    if (result.isDone()) {
+                        response.body().close();
+                        return;
+                    }
+                    reader.set(Thread.currentThread());
+                }
+                try (Stream<String> lines = response.body()) {
+                    if (response.statusCode() < 200 || response.statusCode() >= 300) {
+                        String errorMessage = "API error: Status code " + response.statusCode() + " - Body: " + lines.collect(Collectors.joining("\n"));
+                        System.err.println(errorMessage);
+                        throw new RuntimeException(errorMessage);
+                    }
+                    result.complete(readEventStream(lines.iterator(), result, startNanos, onContent));
+                } catch (Exception e) {
+                    result.completeExceptionally(e);
+                } finally {
+                    synchronized (reader) {
+                        reader.set(null);
+                        Thread.interrupted();
+                    }
+                }
+            });
+        });
+        result.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS).whenComplete((value, error) -> {
+            if (error == null) {
+                return;
+            }
+            exchange.cancel(true);
+            exchange.thenAccept(response -> response.body().close());
+            synchronized (reader) {
+                Thread readerThread = reader.get();
+                if (readerThread != null) {
+                    readerThread.interrupt();
+                }
+            }
+        });
+        return result;
+    }
+
+    private static String readEventStream(Iterator<String> lines, CompletableFuture<String> result, long startNanos, Consumer<String> onContent) throws IOException {
+        StringBuilder content = new StringBuilder();
+        boolean firstToken = true;
+        while (!result.isDone() && lines.hasNext()) {
+            String line = lines.next();
+            if (!line.startsWith("data:")) {
+                continue;
+            }
+            String data = line.substring(5).trim();
+            if (data.equals("[DONE]")) {
+                break;
+            }
+            JsonObject chunk = JsonParser.parseString(data).getAsJsonObject();
+            if (chunk.has("error")) {
+                throw new IOException("Streaming API error: " + chunk.get("error"));
+            }
+            String delta = extractDeltaContent(chunk);
+            if (delta == null || delta.isEmpty()) {
+                continue;
+            }
+            if (firstToken) {
+                firstToken = false;
+                recordTimeToFirstToken((System.nanoTime() - startNanos) / 1_000_000);
+            }
+            content.append(delta);
+            onContent.accept(delta);
+        }
+        return content.toString();
+    }
+
+    static String extractDeltaContent(JsonObject chunk) {
+        if (!chunk.has("choices") || !chunk.get("choices").isJsonArray() || chunk.getAsJsonArray("choices").isEmpty()) {
+            return null;
+        }
+        JsonObject firstChoice = chunk.getAsJsonArray("choices").get(0).getAsJsonObject();
+        if (!firstChoice.has("delta") || !firstChoice.get("delta").isJsonObject()) {
+            return null;
+        }
+        JsonObject delta = firstChoice.getAsJsonObject("delta");
+        return delta.has("content") && delta.get("content").isJsonPrimitive() ? delta.get("content").getAsString() : null;
+    }
+
+    private static synchronized void recordTimeToFirstToken(long millis) {
+        lastTimeToFirstTokenMillis = millis;
+        firstTokenSamples++;
+        totalTimeToFirstTokenMillis += millis;
+        System.out.println("LLM time to first token: " + millis + " ms (average " + getAverageTimeToFirstTokenMillis() + " ms over " + firstTokenSamples + " requests).");
+    }
+
+    public static synchronized long getLastTimeToFirstTokenMillis() {
+        return lastTimeToFirstTokenMillis;
+    }
+
+    public static synchronized long getAverageTimeToFirstTokenMillis() {
+        return firstTokenSamples == 0 ? -1 : totalTimeToFirstTokenMillis / firstTokenSamples;
+    }
+
+    public static CompletableFuture<GameRecommendations> streamGameRecommendations(String userPrompt, RecommendationStreamParser.Listener listener) {
         List<ChatMessage> messages = List.of(
-                new ChatMessage("system", "Your task is to provide game recommendations based on the user's game library. First reason about it with a long chain of thoughts, then output a list of five game name strings the user might like. Do not output games the user already has in their library. Output in JSON only as follows: {\"reasoning\":\"(Your chain of thoughts here)\",\"answer\":[\"An array of five game name strings\"]}"),
+                new ChatMessage("system", RECOMMENDATIONS_SYSTEM_PROMPT),
                 new ChatMessage("user", userPrompt)
         );
 
-        return fetchChatCompletion(messages, true)
-                .thenApplyAsync(responseJsonString -> { 
-                    try {
-
-                        GameRecommendations recommendations = gson.fromJson(responseJsonString, GameRecommendations.class);
-                        if (recommendations == null || recommendations.getAnswer() == null || recommendations.getReasoning() == null) {
-                            System.err.println("Warning: Failed to parse response JSON into GameRecommendations. Raw response: " + responseJsonString);
-                            throw new IOException("Parsed recommendations object or its fields are null.");
-                        }
-                        System.out.println("Successfully fetched and parsed recommendations.");
+        RecommendationStreamParser parser = new RecommendationStreamParser(listener);
+        CompletableFuture<String> completion = streamChatCompletion(messages, true, parser::feed);
+        return FutureUtils.propagateCancellation(completion.thenApply(responseJsonString -> {
+                    if (parser.getAnswer() != null) {
+                        GameRecommendations recommendations = new GameRecommendations();
+                        recommendations.reasoning = parser.getReasoning();
+                        recommendations.answer = parser.getAnswer();
+                        System.out.println("Successfully streamed and parsed recommendations.");
                         return recommendations;
-                    } catch (Exception e) {
-                        System.err.println("Error processing AI response: " + e.getMessage());
-                        throw new RuntimeException("Failed to process AI recommendations", e);
                     }
-                });
+                    return parseRecommendations(responseJsonString);
+                }), completion);
+    }
+
+    private static GameRecommendations parseRecommendations(String responseJsonString) {
+        try {
+            GameRecommendations recommendations = gson.fromJson(responseJsonString, GameRecommendations.class);
+            if (recommendations == null || recommendations.getAnswer() == null || recommendations.getReasoning() == null) {
+                System.err.println("Warning: Failed to parse response JSON into GameRecommendations. Raw response: " + responseJsonString);
+                throw new IOException("Parsed recommendations object or its fields are null.");
+            }
+            System.out.println("Successfully fetched and parsed recommendations.");
+            return recommendations;
+        } catch (Exception e) {
+            System.err.println("Error processing AI response: " + e.getMessage());
+            throw new RuntimeException("Failed to process AI recommendations", e);
+        }
+    }
+
+    public static CompletableFuture<GameRecommendations> getGameRecommendations(String userPrompt) {
+
+        List<ChatMessage> messages = List.of(
+                new ChatMessage("system", RECOMMENDATIONS_SYSTEM_PROMPT),
+                new ChatMessage("user", userPrompt)
+        );
+
+        CompletableFuture<String> completion = fetchChatCompletion(messages, true);
+        return FutureUtils.propagateCancellation(completion.thenApplyAsync(LLMClient::parseRecommendations), completion);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,380 @@
+package org.alexw.gamecurator.ai;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.alexw.gamecurator.misc.CacheManager;
+import org.alexw.gamecurator.util.IntSet;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+public class LocalRecommender {
+
+    public static final int DEFAULT_LIMIT = 5;
+    private static final float GENRE_WEIGHT = 1.0f;
+    private static final float TAG_WEIGHT = 0.6f;
+    private static final float PLATFORM_WEIGHT = 0.3f;
+    private static final String GAME_DATA_PREFIX = "gameData_";
+
+    private static final Map<String, ParsedEntry> parsedEntries = new HashMap<>();
+
+    private final int limit;
+
+    public LocalRecommender(int limit) {
+        this.limit = Math.max(1, limit);
+    }
+
+    public Result recommendFromCache(IntSet libraryIds) {
+        long startNanos = System.nanoTime();
+        List<JsonObject> libraryGames = new ArrayList<>();
+        Map<Integer, JsonObject> candidates = new LinkedHashMap<>();
+        for (Map.Entry<String, JsonElement> entry : parsedCacheEntries().entrySet()) {
+            JsonElement parsed = entry.getValue();
+            if (entry.getKey().startsWith(GAME_DATA_PREFIX) && parsed.isJsonObject()) {
+                if (libraryIds.contains(readId(parsed.getAsJsonObject()))) {
+                    libraryGames.add(parsed.getAsJsonObject());
+                }
+            } else if (parsed.isJsonArray()) {
+                for (JsonElement element : parsed.getAsJsonArray()) {
+                    if (element.isJsonObject() && readId(element.getAsJsonObject()) > 0) {
+                        candidates.putIfAbsent(readId(element.getAsJsonObject()), element.getAsJsonObject());
+                    }
+                }
+            }
+        }
+        return recommend(libraryGames, candidates.values(), libraryIds, startNanos);
+    }
+
+    // Parsing every cached response dominated each click, so parsed values are kept until their cache entry changes
+    // or disappears. The parsed documents are shared between calls and must not be modified.
+    private static Map<String, JsonElement> parsedCacheEntries() {
+        Map<String, String> entries = CacheManager.getEntries("");
+        Map<String, JsonElement> parsed = new TreeMap<>();
+        synchronized (parsedEntries) {
+            parsedEntries.keySet().retainAll(entries.keySet());
+            for (Map.Entry<String, String> entry : entries.entrySet()) {
+                ParsedEntry cached = parsedEntries.get(entry.getKey());
+                if (cached == null || !cached.json.equals(entry.getValue())) {
+                    cached = new ParsedEntry(entry.getValue(), parse(entry.getValue()));
+                    parsedEntries.put(entry.getKey(), cached);
+                }
+                if (cached.value != null) {
+                    parsed.put(entry.getKey(), cached.value);
+                }
+            }
+        }
+        return parsed;
+    }
+
+    private static JsonElement parse(String json) {
+        try {
+            return JsonParser.parseString(json);
+        } catch (RuntimeException e) {
+            // Cache values are not all JSON documents describing games; skip anything else.
+            return null;
+        }
+    }
+
+    public Result recommend(Collection<JsonObject> libraryGames, Collection<JsonObject> candidates, IntSet ownedIds) {
+        return recommend(libraryGames, candidates, ownedIds, System.nanoTime());
+    }
+
+    private Result recommend(Collection<JsonObject> libraryGames, Collection<JsonObject> candidates, IntSet ownedIds, long startNanos) {
+        Map<String, Integer> features = new HashMap<>();
+        List<FeatureVector> libraryVectors = new ArrayList<>(libraryGames.size());
+        for (JsonObject game : libraryGames) {
+            libraryVectors.add(FeatureVector.of(game, features, true));
+        }
+
+        double[] profile = new double[features.size()];
+        for (FeatureVector vector : libraryVectors) {
+            if (vector.norm == 0) {
+                continue;
+            }
+            for (int i = 0; i < vector.featureIds.length; i++) {
+                profile[vector.featureIds[i]] += vector.weights[i] / vector.norm;
+            }
+        }
+        double profileNorm = 0;
+        for (double value : profile) {
+            profileNorm += value * value;
+        }
+        profileNorm = Math.sqrt(profileNorm);
+
+        List<JsonObject> pool = new ArrayList<>(candidates.size());
+        TopK topK = new TopK(limit);
+        if (profileNorm > 0) {
+            for (JsonObject candidate : candidates) {
+                int gameId = readId(candidate);
+                if (gameId <= 0 || ownedIds.contains(gameId)) {
+                    continue;
+                }
+                FeatureVector vector = FeatureVector.of(candidate, features, false);
+                if (vector.norm == 0) {
+                    continue;
+                }
+                double dot = 0;
+                for (int i = 0; i < vector.featureIds.length; i++) {
+                    dot += profile[vector.featureIds[i]] * vector.weights[i];
+                }
+                double score = dot / (profileNorm * vector.norm);
+                if (score > 0) {
+                    pool.add(candidate);
+                    topK.offer(pool.size() - 1, score, readRating(candidate), gameId);
+                }
+            }
+        }
+
+        List<Recommendation> picks = topK.drain(pool);
+        long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+        System.out.println("Local recommendations: " + picks.size() + " picks from " + candidates.size() + " cached games ("
+                + libraryGames.size() + " library games, " + features.size() + " features) in " + elapsedMillis + " ms.");
+        return new Result(picks, candidates.size(), elapsedMillis);
+    }
+
+    private static int readId(JsonObject game) {
+        JsonElement id = game.get("id");
+        return id != null && id.isJsonPrimitive() && id.getAsJsonPrimitive().isNumber() ? id.getAsInt() : -1;
+    }
+
+    private static double readRating(JsonObject game) {
+        JsonElement rating = game.get("rating");
+        return rating != null && rating.isJsonPrimitive() && rating.getAsJsonPrimitive().isNumber() ? rating.getAsDouble() : 0.0;
+    }
+
+    private static class ParsedEntry {
+        final String json;
+        final JsonElement value;
+
+        ParsedEntry(String json, JsonElement value) {
+            this.json = json;
+            this.value = value;
+        }
+    }
+
+    private static class FeatureVector {
+        final int[] featureIds;
+        final float[] weights;
+        final double norm;
+
+        private FeatureVector(int[] featureIds, float[] weights, double unknownSquaredWeight) {
+            this.featureIds = featureIds;
+            this.weights = weights;
+            double sum = unknownSquaredWeight;
+            for (float weight : weights) {
+                sum += weight * weight;
+            }
+            this.norm = Math.sqrt(sum);
+        }
+
+        static FeatureVector of(JsonObject game, Map<String, Integer> features, boolean extend) {
+            Map<Integer, Float> collected = new LinkedHashMap<>();
+            Map<String, Float> unknown = new HashMap<>();
+            collect(game.get("genres"), null, "g:", GENRE_WEIGHT, features, extend, collected, unknown);
+            collect(game.get("tags"), null, "t:", TAG_WEIGHT, features, extend, collected, unknown);
+            collect(game.get("platforms"), "platform", "p:", PLATFORM_WEIGHT, features, extend, collected, unknown);
+            int[] ids = new int[collected.size()];
+            float[] weights = new float[collected.size()];
+            int size = 0;
+            for (Map.Entry<Integer, Float> entry : collected.entrySet()) {
+                ids[size] = entry.getKey();
+                weights[size++] = entry.getValue();
+            }
+            double unknownSquaredWeight = 0;
+            for (float weight : unknown.values()) {
+                unknownSquaredWeight += weight * weight;
+            }
+            return new FeatureVector(ids, weights, unknownSquaredWeight);
+        }
+
+        private static void collect(JsonElement array, String wrapper, String namespace, float weight,
+                                    Map<String, Integer> features, boolean extend,
+                                    Map<Integer, Float> collected, Map<String, Float> unknown) {
+            if (array == null || !array.isJsonArray()) {
+                return;
+            }
+            for (JsonElement element : array.getAsJsonArray()) {
+                if (wrapper != null && element.isJsonObject()) {
+                    element = element.getAsJsonObject().get(wrapper);
+                }
+                if (element == null || !element.isJsonObject()) {
+                    continue;
+                }
+                JsonObject item = element.getAsJsonObject();
+                JsonElement language = item.get("language");
+                if (language != null && language.isJsonPrimitive() && !"eng".equals(language.getAsString())) {
+                    continue;
+                }
+                JsonElement name = item.get("name");
+                if (name == null || !name.isJsonPrimitive()) {
+                    continue;
+                }
+                String key = namespace + name.getAsString().toLowerCase();
+                Integer featureId = features.get(key);
+                if (featureId == null && extend) {
+                    featureId = features.size();
+                    features.put(key, featureId);
+                }
+                if (featureId != null) {
+                    collected.put(featureId, weight);
+                } else {
+                    unknown.put(key, weight);
+                }
+            }
+        }
+    }
+
+    private static class TopK {
+        private final int[] indices;
+        private final double[] scores;
+        private final double[] ratings;
+        private final int[] gameIds;
+        private int size;
+
+        TopK(int capacity) {
+            this.indices = new int[capacity];
+            this.scores = new double[capacity];
+            this.ratings = new double[capacity];
+            this.gameIds = new int[capacity];
+        }
+
+        void offer(int index, double score, double rating, int gameId) {
+            if (size < indices.length) {
+                set(size, index, score, rating, gameId);
+                siftUp(size++);
+            } else if (compare(score, rating, gameId, 0) > 0) {
+                set(0, index, score, rating, gameId);
+                siftDown(0);
+            }
+        }
+
+        List<Recommendation> drain(List<JsonObject> pool) {
+            Recommendation[] ranked = new Recommendation[size];
+            while (size > 0) {
+                ranked[size - 1] = new Recommendation(pool.get(indices[0]), scores[0]);
+                size--;
+                if (size > 0) {
+                    swap(0, size);
+                    siftDown(0);
+                }
+            }
+            return Arrays.asList(ranked);
+        }
+
+        private int compare(double score, double rating, int gameId, int slot) {
+            int result = Double.compare(score, scores[slot]);
+            if (result == 0) {
+                result = Double.compare(rating, ratings[slot]);
+            }
+            if (result == 0) {
+                result = Integer.compare(gameIds[slot], gameId);
+            }
+            return result;
+        }
+
+        private boolean ranksBelow(int a, int b) {
+            return compare(scores[a], ratings[a], gameIds[a], b) < 0;
+        }
+
+        private void set(int slot, int index, double score, double rating, int gameId) {
+            indices[slot] = index;
+            scores[slot] = score;
+            ratings[slot] = rating;
+            gameIds[slot] = gameId;
+        }
+
+        private void siftUp(int slot) {
+            while (slot > 0) {
+                int parent = (slot - 1) / 2;
+                if (!ranksBelow(slot, parent)) {
+                    return;
+                }
+                swap(slot, parent);
+                slot = parent;
+            }
+        }
+
+        private void siftDown(int slot) {
+            while (true) {
+                int lowest = slot;
+                int left = 2 * slot + 1;
+                int right = left + 1;
+                if (left < size && ranksBelow(left, lowest)) {
+                    lowest = left;
+                }
+                if (right < size && ranksBelow(right, lowest)) {
+                    lowest = right;
+                }
+                if (lowest == slot) {
+                    return;
+                }
+                swap(slot, lowest);
+                slot = lowest;
+            }
+        }
+
+        private void swap(int a, int b) {
+            int index = indices[a];
+            indices[a] = indices[b];
+            indices[b] = index;
+            double score = scores[a];
+            scores[a] = scores[b];
+            scores[b] = score;
+            double rating = ratings[a];
+            ratings[a] = ratings[b];
+            ratings[b] = rating;
+            int gameId = gameIds[a];
+            gameIds[a] = gameIds[b];
+            gameIds[b] = gameId;
+        }
+    }
+
+    public static class Recommendation {
+        private final JsonObject game;
+        private final double score;
+
+        Recommendation(JsonObject game, double score) {
+            this.game = game;
+            this.score = score;
+        }
+
+        public JsonObject getGame() {
+            return game;
+        }
+
+        public double getScore() {
+            return score;
+        }
+    }
+
+    public static class Result {
+        private final List<Recommendation> picks;
+        private final int candidateCount;
+        private final long elapsedMillis;
+
+        Result(List<Recommendation> picks, int candidateCount, long elapsedMillis) {
+            this.picks = List.copyOf(picks);
+            this.candidateCount = candidateCount;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public List<Recommendation> getPicks() {
+            return picks;
+        }
+
+        public int getCandidateCount() {
+            return candidateCount;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package org.alexw.gamecurator.ai;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import org.alexw.gamecurator.LibraryStats;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+public class PromptBuilder {
+
+    public static final int MIN_TOKEN_BUDGET = 500;
+    private static final int MAX_SUMMARY_RESERVE = 600;
+    private static final int SUMMARY_GENRES = 20;
+    private static final int SUMMARY_TOP_RATED = 15;
+    private static final int SUMMARY_RECENT = 10;
+
+    static final Comparator<PromptEntry> ENTRY_ORDER = Comparator
+            .comparingDouble(PromptEntry::getRating).reversed()
+            .thenComparing(PromptEntry::getName)
+            .thenComparingInt(PromptEntry::getGameId);
+
+    private final int tokenBudget;
+
+    public PromptBuilder(int tokenBudget) {
+        this.tokenBudget = Math.max(MIN_TOKEN_BUDGET, tokenBudget);
+    }
+
+    public int getTokenBudget() {
+        return tokenBudget;
+    }
+
+    public static int estimateTokens(CharSequence text) {
+        return (text.length() + 3) / 4;
+    }
+
+    public Result build(Collection<PromptEntry> entries, LibraryStats stats) {
+        long startNanos = System.nanoTime();
+        List<PromptEntry> ordered = new ArrayList<>(entries);
+        ordered.sort(ENTRY_ORDER);
+
+        StringBuilder prompt = new StringBuilder();
+        int totalTokens = 0;
+        for (PromptEntry entry : ordered) {
+            totalTokens += estimateTokens(entry.getText());
+        }
+        int fullEntryBudget = totalTokens <= tokenBudget ? tokenBudget : tokenBudget - Math.min(tokenBudget / 4, MAX_SUMMARY_RESERVE);
+
+        int included = 0;
+        int usedTokens = 0;
+        for (PromptEntry entry : ordered) {
+            int entryTokens = estimateTokens(entry.getText());
+            if (usedTokens + entryTokens > fullEntryBudget) {
+                break;
+            }
+            prompt.append(entry.getText());
+            usedTokens += entryTokens;
+            included++;
+        }
+
+        List<PromptEntry> omitted = ordered.subList(included, ordered.size());
+        if (!omitted.isEmpty()) {
+            appendSummary(prompt, omitted, stats);
+        }
+
+        String text = prompt.toString();
+        return new Result(text, included, omitted.size(), estimateTokens(text), tokenBudget,
+                (System.nanoTime() - startNanos) / 1_000_000);
+    }
+
+    private void appendSummary(StringBuilder prompt, List<PromptEntry> omitted, LibraryStats stats) {
+        prompt.append("Library summary for ").append(omitted.size()).append(" more games not listed above:\n");
+
+        Map<String, Integer> genreCounts = stats != null ? stats.getGenreCounts() : countGenres(omitted);
+        if (!genreCounts.isEmpty()) {
+            prompt.append(stats != null ? "Genre counts across the whole library: " : "Genre counts: ").append(genreCounts.entrySet().stream()
+                    .sorted(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                    .limit(SUMMARY_GENRES)
+                    .map(entry -> entry.getKey() + " " + entry.getValue())
+                    .collect(Collectors.joining(", "))).append("\n");
+        }
+
+        prompt.append("Top rated: ").append(omitted.stream()
+                .limit(SUMMARY_TOP_RATED)
+                .map(PromptEntry::getName)
+                .collect(Collectors.joining(", "))).append("\n");
+
+        String recent = omitted.stream()
+                .filter(entry -> entry.getReleased() != null)
+                .sorted(Comparator.comparing(PromptEntry::getReleased).reversed()
+                        .thenComparing(PromptEntry::getName)
+                        .thenComparingInt(PromptEntry::getGameId))
+                .limit(SUMMARY_RECENT)
+                .map(entry -> entry.getName() + " (" + entry.getReleased().substring(0, Math.min(4, entry.getReleased().length())) + ")")
+                .collect(Collectors.joining(", "));
+        if (!recent.isEmpty()) {
+            prompt.append("Most recent releases: ").append(recent).append("\n");
+        }
+        prompt.append("---\n");
+    }
+
+    private static Map<String, Integer> countGenres(List<PromptEntry> entries) {
+        Map<String, Integer> counts = new TreeMap<>();
+        for (PromptEntry entry : entries) {
+            for (String genre : entry.getGenres()) {
+                counts.merge(genre, 1, Integer::sum);
+            }
+        }
+        return counts;
+    }
+
+    public static class PromptEntry {
+        private final int gameId;
+        private final String name;
+        private final List<String> genres;
+        private final double rating;
+        private final String released;
+        private final String text;
+
+        public PromptEntry(int gameId, String name, List<String> genres, double rating, String released) {
+            this.gameId = gameId;
+            this.name = name;
+            this.genres = List.copyOf(genres);
+            this.rating = rating;
+            this.released = released;
+            String genreText = genres.isEmpty() ? "Unknown Genres" : String.join(" ", genres);
+            this.text = "Title: " + name + "\nGenres: " + genreText + "\n---\n";
+        }
+
+        public static PromptEntry fromGame(int gameId, JsonObject game) {
+            String name = game.has("name") && game.get("name").isJsonPrimitive() ? game.get("name").getAsString() : "Unknown Title";
+            List<String> genres = new ArrayList<>();
+            if (game.has("genres") && game.get("genres").isJsonArray()) {
+                for (JsonElement genre : game.getAsJsonArray("genres")) {
+                    if (genre.isJsonObject() && genre.getAsJsonObject().has("name")) {
+                        String genreName = genre.getAsJsonObject().get("name").getAsString();
+                        if (!genreName.isEmpty()) {
+                            genres.add(genreName);
+                        }
+                    }
+                }
+            }
+            double rating = game.has("rating") && game.get("rating").isJsonPrimitive()
+                    && game.get("rating").getAsJsonPrimitive().isNumber() ? game.get("rating").getAsDouble() : 0.0;
+            String released = game.has("released") && game.get("released").isJsonPrimitive()
+                    ? game.get("released").getAsString() : null;
+            return new PromptEntry(gameId, name, genres, rating, released);
+        }
+
+        public int getGameId() {
+            return gameId;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public List<String> getGenres() {
+            return genres;
+        }
+
+        public double getRating() {
+            return rating;
+        }
+
+        public String getReleased() {
+            return released;
+        }
+
+        public String getText() {
+            return text;
+        }
+    }
+
+    public static class Result {
+        private final String prompt;
+        private final int includedCount;
+        private final int summarizedCount;
+        private final int estimatedTokens;
+        private final int tokenBudget;
+        private final long buildMillis;
+
+        Result(String prompt, int includedCount, int summarizedCount, int estimatedTokens, int tokenBudget, long buildMillis) {
+            this.prompt = prompt;
+            this.includedCount = includedCount;
+            this.summarizedCount = summarizedCount;
+            this.estimatedTokens = estimatedTokens;
+            this.tokenBudget = tokenBudget;
+            this.buildMillis = buildMillis;
+        }
+
+        public String getPrompt() {
+            return prompt;
+        }
+
+        public int getIncludedCount() {
+            return includedCount;
+        }
+
+        public int getSummarizedCount() {
+            return summarizedCount;
+        }
+
+        public int getEstimatedTokens() {
+            return estimatedTokens;
+        }
+
+        public long getBuildMillis() {
+            return buildMillis;
+        }
+
+        public String describe() {
+            return String.format("%d full entries, %d summarized, %d chars (~%d of %d tokens), built in %d ms",
+                    includedCount, summarizedCount, prompt.length(), estimatedTokens, tokenBudget, buildMillis);
+        }
+    }
+}
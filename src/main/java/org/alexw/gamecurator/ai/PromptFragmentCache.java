@@ -0,0 +1,99 @@
+package org.alexw.gamecurator.ai;
+
+import com.google.gson.JsonParser;
+import org.alexw.gamecurator.LibraryManager;
+import org.alexw.gamecurator.misc.CacheManager;
+import org.alexw.gamecurator.util.IntSet;
+import org.alexw.gamecurator.util.NamedThreadFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+public class PromptFragmentCache implements LibraryManager.Listener {
+
+    private static final String GAME_DATA_PREFIX = "gameData_";
+
+    private final Map<Integer, PromptBuilder.PromptEntry> entries = new ConcurrentHashMap<>();
+    private final Executor executor;
+
+    private PromptFragmentCache(Executor executor) {
+        this.executor = executor;
+    }
+
+    public static PromptFragmentCache start(LibraryManager libraryManager) {
+        return start(libraryManager, Executors.newSingleThreadExecutor(new NamedThreadFactory("prompt-cache")));
+    }
+
+    static PromptFragmentCache start(LibraryManager libraryManager, Executor executor) {
+        PromptFragmentCache cache = new PromptFragmentCache(executor);
+        libraryManager.addChangeListener(cache);
+        executor.execute(() -> {
+            long startNanos = System.nanoTime();
+            IntSet libraryIds = libraryManager.getLibrarySnapshot();
+            libraryIds.forEach(cache::load);
+            System.out.println("Prompt fragments prepared for " + cache.entries.size() + " of " + libraryIds.size()
+                    + " library games in " + (System.nanoTime() - startNanos) / 1_000_000 + " ms.");
+        });
+        return cache;
+    }
+
+    @Override
+    public void onLibraryChanged(LibraryManager.Changes changes) {
+        executor.execute(() -> {
+            changes.getRemovedIds().forEach(entries::remove);
+            changes.getAddedIds().forEach(this::load);
+        });
+    }
+
+    public CompletableFuture<List<PromptBuilder.PromptEntry>> entriesFor(IntSet libraryIds) {
+        return CompletableFuture.supplyAsync(() -> {
+            List<PromptBuilder.PromptEntry> result = new ArrayList<>(libraryIds.size());
+            int[] loaded = new int[1];
+            libraryIds.forEach(gameId -> {
+                PromptBuilder.PromptEntry entry = entries.get(gameId);
+                if (entry == null) {
+                    entry = load(gameId);
+                    loaded[0]++;
+                }
+                if (entry != null) {
+                    result.add(entry);
+                }
+            });
+            if (loaded[0] > 0) {
+                System.out.println("Prompt fragments: " + loaded[0] + " of " + libraryIds.size() + " were not prepared in advance.");
+            }
+            return result;
+        }, executor);
+    }
+
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private PromptBuilder.PromptEntry load(int gameId) {
+        String gameDataJson = CacheManager.get(GAME_DATA_PREFIX + gameId);
+        if (gameDataJson == null) {
+            System.err.println("Could not find cached game data for ID " + gameId + " in library (PromptFragmentCache).");
+            entries.remove(gameId);
+            return null;
+        }
+        try {
+            PromptBuilder.PromptEntry entry = PromptBuilder.PromptEntry.fromGame(gameId, JsonParser.parseString(gameDataJson).getAsJsonObject());
+            entries.put(gameId, entry);
+            return entry;
+        } catch (RuntimeException e) {
+            System.err.println("Error processing cached game data for ID " + gameId + " in PromptFragmentCache: " + e.getMessage());
+            entries.remove(gameId);
+            return null;
+        }
+    }
+}
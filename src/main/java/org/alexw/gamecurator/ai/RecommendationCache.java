@@ -0,0 +1,81 @@
+package org.alexw.gamecurator.ai;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
+import org.alexw.gamecurator.misc.CacheManager;
+import org.alexw.gamecurator.util.IntSet;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+// Saved recommendations live in the regular game cache, so they expire with its 24 hour TTL and are dropped by
+// "Clear Cache". The hit and miss counts only cover the current session.
+public class RecommendationCache {
+
+    private static final String CACHE_KEY_PREFIX = "aiRecommendations_";
+    private static final Gson gson = new Gson();
+
+    private static long hits;
+    private static long misses;
+
+    public static String fingerprint(IntSet libraryIds, String model, int promptVersion, String promptVariant) {
+        StringBuilder source = new StringBuilder(model).append('|').append(promptVersion).append('|').append(promptVariant).append('|');
+        libraryIds.forEach(gameId -> source.append(gameId).append(','));
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(source.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    public static LLMClient.GameRecommendations get(IntSet libraryIds, String promptVariant) {
+        String key = cacheKey(libraryIds, promptVariant);
+        String json = CacheManager.get(key);
+        LLMClient.GameRecommendations recommendations = null;
+        if (json != null) {
+            try {
+                recommendations = gson.fromJson(json, LLMClient.GameRecommendations.class);
+            } catch (JsonSyntaxException e) {
+                System.err.println("Discarding unreadable cached recommendations: " + e.getMessage());
+                CacheManager.remove(key);
+            }
+        }
+        if (recommendations != null && recommendations.getAnswer() == null) {
+            recommendations = null;
+        }
+        recordLookup(recommendations != null);
+        return recommendations;
+    }
+
+    public static void put(IntSet libraryIds, String promptVariant, LLMClient.GameRecommendations recommendations) {
+        if (recommendations == null || recommendations.getAnswer() == null) {
+            return;
+        }
+        CacheManager.put(cacheKey(libraryIds, promptVariant), gson.toJson(recommendations));
+    }
+
+    private static String cacheKey(IntSet libraryIds, String promptVariant) {
+        return CACHE_KEY_PREFIX + fingerprint(libraryIds, LLMClient.getModel(), LLMClient.PROMPT_VERSION, promptVariant);
+    }
+
+    private static synchronized void recordLookup(boolean hit) {
+        if (hit) {
+            hits++;
+        } else {
+            misses++;
+        }
+        System.out.println("Recommendation cache " + (hit ? "hit" : "miss") + ": " + describeStats());
+    }
+
+    public static synchronized double getHitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0.0 : (double) hits / lookups;
+    }
+
+    public static synchronized String describeStats() {
+        return String.format("this session: %d hits, %d misses, hit rate %.1f%%", hits, misses, getHitRate() * 100);
+    }
+}
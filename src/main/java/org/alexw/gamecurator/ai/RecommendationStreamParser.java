@@ -0,0 +1,186 @@
+package org.alexw.gamecurator.ai;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class RecommendationStreamParser {
+
+    public interface Listener {
+        void onReasoning(String delta);
+
+        void onAnswer(List<String> answer);
+    }
+
+    private enum State {
+        BEFORE_OBJECT, SEEK_KEY, KEY, AFTER_KEY, VALUE_START, STRING_VALUE, ARRAY, ARRAY_STRING, SKIP_VALUE, DONE
+    }
+
+    private final Listener listener;
+    private State state = State.BEFORE_OBJECT;
+    private final StringBuilder key = new StringBuilder();
+    private final StringBuilder reasoning = new StringBuilder();
+    private final StringBuilder arrayItem = new StringBuilder();
+    private final List<String> answerItems = new ArrayList<>();
+    private List<String> answer;
+    private boolean escaping;
+    private int unicodeDigits = -1;
+    private int unicodeValue;
+    private int skipDepth;
+    private boolean skipInString;
+    private boolean skipEscaping;
+
+    public RecommendationStreamParser(Listener listener) {
+        this.listener = listener;
+    }
+
+    public void feed(CharSequence chunk) {
+        int reasoningStart = reasoning.length();
+        for (int i = 0; i < chunk.length(); i++) {
+            accept(chunk.charAt(i));
+        }
+        if (reasoning.length() > reasoningStart) {
+            listener.onReasoning(reasoning.substring(reasoningStart));
+        }
+    }
+
+    public String getReasoning() {
+        return reasoning.toString();
+    }
+
+    public List<String> getAnswer() {
+        return answer;
+    }
+
+    public boolean isComplete() {
+        return state == State.DONE;
+    }
+
+    private void accept(char c) {
+        switch (state) {
+            case BEFORE_OBJECT:
+                if (c == '{') {
+                    state = State.SEEK_KEY;
+                }
+                break;
+            case SEEK_KEY:
+                if (c == '"') {
+                    key.setLength(0);
+                    state = State.KEY;
+                } else if (c == '}') {
+                    state = State.DONE;
+                }
+                break;
+            case KEY:
+                if (readStringChar(c, key)) {
+                    state = State.AFTER_KEY;
+                }
+                break;
+            case AFTER_KEY:
+                if (c == ':') {
+                    state = State.VALUE_START;
+                }
+                break;
+            case VALUE_START:
+                if (Character.isWhitespace(c)) {
+                    break;
+                }
+                if (c == '"' && "reasoning".equals(key.toString())) {
+                    state = State.STRING_VALUE;
+                } else if (c == '[' && "answer".equals(key.toString())) {
+                    answerItems.clear();
+                    state = State.ARRAY;
+                } else {
+                    skipDepth = 0;
+                    skipInString = false;
+                    skipEscaping = false;
+                    state = State.SKIP_VALUE;
+                    accept(c);
+                }
+                break;
+            case STRING_VALUE:
+                if (readStringChar(c, reasoning)) {
+                    state = State.SEEK_KEY;
+                }
+                break;
+            case ARRAY:
+                if (c == '"') {
+                    arrayItem.setLength(0);
+                    state = State.ARRAY_STRING;
+                } else if (c == ']') {
+                    answer = Collections.unmodifiableList(new ArrayList<>(answerItems));
+                    state = State.SEEK_KEY;
+                    listener.onAnswer(answer);
+                }
+                break;
+            case ARRAY_STRING:
+                if (readStringChar(c, arrayItem)) {
+                    answerItems.add(arrayItem.toString());
+                    state = State.ARRAY;
+                }
+                break;
+            case SKIP_VALUE:
+                skip(c);
+                break;
+            case DONE:
+                break;
+        }
+    }
+
+    private void skip(char c) {
+        if (skipInString) {
+            if (skipEscaping) {
+                skipEscaping = false;
+            } else if (c == '\\') {
+                skipEscaping = true;
+            } else if (c == '"') {
+                skipInString = false;
+            }
+        } else if (c == '"') {
+            skipInString = true;
+        } else if (c == '{' || c == '[') {
+            skipDepth++;
+        } else if ((c == '}' || c == ']') && skipDepth > 0) {
+            skipDepth--;
+        } else if (skipDepth == 0 && (c == ',' || c == '}')) {
+            state = State.SEEK_KEY;
+            accept(c);
+        }
+    }
+
+    private boolean readStringChar(char c, StringBuilder target) {
+        if (unicodeDigits >= 0) {
+            unicodeValue = unicodeValue * 16 + Character.digit(c, 16);
+            if (++unicodeDigits == 4) {
+                target.append((char) unicodeValue);
+                unicodeDigits = -1;
+            }
+            return false;
+        }
+        if (escaping) {
+            escaping = false;
+            switch (c) {
+                case 'n': target.append('\n'); break;
+                case 't': target.append('\t'); break;
+                case 'r': target.append('\r'); break;
+                case 'b': target.append('\b'); break;
+                case 'f': target.append('\f'); break;
+                case 'u':
+                    unicodeDigits = 0;
+                    unicodeValue = 0;
+                    break;
+                default: target.append(c); break;
+            }
+            return false;
+        }
+        if (c == '\\') {
+            escaping = true;
+            return false;
+        }
+        if (c == '"') {
+            return true;
+        }
+        target.append(c);
+        return false;
+    }
+}
@@ -0,0 +1,190 @@
+package org.alexw.gamecurator.ai;
+
+import org.alexw.gamecurator.misc.TitleMatcher;
+import org.alexw.gamecurator.util.BoundedWindow;
+import org.alexw.gamecurator.util.FutureUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class ShardedRecommender {
+
+    public static final int ANSWER_SIZE = 5;
+    private static final int MAX_SHARDS = 12;
+    private static final int MAX_SHARD_REASONING_CHARS = 600;
+    private static final String OTHER_GENRE = "Other";
+
+    private final int tokenBudget;
+    private final int parallelism;
+    private final Duration shardTimeout;
+    private final Function<String, CompletableFuture<LLMClient.GameRecommendations>> recommend;
+
+    public ShardedRecommender(int tokenBudget, int parallelism, Duration shardTimeout) {
+        this(tokenBudget, parallelism, shardTimeout, LLMClient::getGameRecommendations);
+    }
+
+    ShardedRecommender(int tokenBudget, int parallelism, Duration shardTimeout,
+                       Function<String, CompletableFuture<LLMClient.GameRecommendations>> recommend) {
+        this.tokenBudget = Math.max(PromptBuilder.MIN_TOKEN_BUDGET, tokenBudget);
+        this.parallelism = Math.max(1, parallelism);
+        this.shardTimeout = shardTimeout;
+        this.recommend = recommend;
+    }
+
+    List<List<PromptBuilder.PromptEntry>> partition(Collection<PromptBuilder.PromptEntry> entries) {
+        Map<String, List<PromptBuilder.PromptEntry>> clusters = new TreeMap<>();
+        for (PromptBuilder.PromptEntry entry : entries) {
+            String primaryGenre = entry.getGenres().isEmpty() ? OTHER_GENRE : entry.getGenres().get(0);
+            clusters.computeIfAbsent(primaryGenre, genre -> new ArrayList<>()).add(entry);
+        }
+        List<List<PromptBuilder.PromptEntry>> ordered = new ArrayList<>(clusters.values());
+        ordered.sort(Comparator.<List<PromptBuilder.PromptEntry>>comparingInt(List::size).reversed());
+
+        List<List<PromptBuilder.PromptEntry>> shards = new ArrayList<>();
+        List<PromptBuilder.PromptEntry> current = new ArrayList<>();
+        int currentTokens = 0;
+        for (List<PromptBuilder.PromptEntry> cluster : ordered) {
+            cluster.sort(PromptBuilder.ENTRY_ORDER);
+            for (PromptBuilder.PromptEntry entry : cluster) {
+                int entryTokens = PromptBuilder.estimateTokens(entry.getText());
+                if (!current.isEmpty() && currentTokens + entryTokens > tokenBudget && shards.size() < MAX_SHARDS - 1) {
+                    shards.add(current);
+                    current = new ArrayList<>();
+                    currentTokens = 0;
+                }
+                current.add(entry);
+                currentTokens += entryTokens;
+            }
+        }
+        if (!current.isEmpty()) {
+            shards.add(current);
+        }
+        return shards;
+    }
+
+    public CompletableFuture<LLMClient.GameRecommendations> recommend(Collection<PromptBuilder.PromptEntry> entries) {
+        List<List<PromptBuilder.PromptEntry>> shards = partition(entries);
+        System.out.println("Sharded recommendations: " + entries.size() + " games in " + shards.size()
+                + " shards, parallelism " + parallelism + ", timeout " + shardTimeout.toSeconds() + "s per shard.");
+        long startNanos = System.nanoTime();
+
+        Map<Integer, LLMClient.GameRecommendations> results = new ConcurrentHashMap<>();
+        AtomicInteger failed = new AtomicInteger();
+        List<Integer> shardIndices = IntStream.range(0, shards.size()).boxed().collect(Collectors.toList());
+        CompletableFuture<Void> done = BoundedWindow.run(shardIndices, parallelism, index -> requestShard(shards, index),
+                (position, index, recommendations, error) -> {
+                    if (error != null || recommendations == null || recommendations.getAnswer() == null) {
+                        System.err.println("Recommendation shard " + (index + 1) + " failed: "
+                                + (error != null ? FutureUtils.unwrap(error) : "empty response"));
+                        failed.incrementAndGet();
+                    } else {
+                        results.put(index, recommendations);
+                    }
+                });
+        CompletableFuture<LLMClient.GameRecommendations> result = done.thenApply(ignored -> {
+            System.out.println("Sharded recommendations finished in " + (System.nanoTime() - startNanos) / 1_000_000
+                    + " ms (" + failed.get() + " of " + shards.size() + " shards failed).");
+            return merge(shards, results, entries);
+        });
+        return FutureUtils.propagateCancellation(result, done);
+    }
+
+    // A shard that runs past its timeout is cancelled rather than left running, so its request stops counting
+    // against the parallelism before the next shard is started.
+    private CompletableFuture<LLMClient.GameRecommendations> requestShard(List<List<PromptBuilder.PromptEntry>> shards, int index) {
+        List<PromptBuilder.PromptEntry> shard = shards.get(index);
+        String prompt = "This is part " + (index + 1) + " of " + shards.size() + " of the user's library, mostly "
+                + describeGenres(shard) + " games. Base your recommendations on this part.\n\n"
+                + new PromptBuilder(tokenBudget).build(shard, null).getPrompt();
+        return FutureUtils.cancelOnTimeout(recommend.apply(prompt), shardTimeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    LLMClient.GameRecommendations merge(List<List<PromptBuilder.PromptEntry>> shards,
+                                        Map<Integer, LLMClient.GameRecommendations> results,
+                                        Collection<PromptBuilder.PromptEntry> library) {
+        if (results.isEmpty()) {
+            throw new IllegalStateException("All " + shards.size() + " recommendation shards failed.");
+        }
+        Set<String> owned = new HashSet<>();
+        for (PromptBuilder.PromptEntry entry : library) {
+            owned.add(TitleMatcher.normalize(entry.getName()));
+        }
+
+        Map<String, Candidate> candidates = new LinkedHashMap<>();
+        StringBuilder reasoning = new StringBuilder("Combined recommendations from ")
+                .append(results.size()).append(" of ").append(shards.size()).append(" library shards.");
+        for (int index = 0; index < shards.size(); index++) {
+            LLMClient.GameRecommendations shardResult = results.get(index);
+            if (shardResult == null) {
+                continue;
+            }
+            List<String> answer = shardResult.getAnswer();
+            for (int position = 0; position < answer.size(); position++) {
+                String title = answer.get(position);
+                String key = TitleMatcher.normalize(title);
+                if (key.isEmpty() || owned.contains(key)) {
+                    continue;
+                }
+                candidates.computeIfAbsent(key, k -> new Candidate(title)).vote(position);
+            }
+            String shardReasoning = shardResult.getReasoning() == null ? "" : shardResult.getReasoning().trim();
+            if (shardReasoning.length() > MAX_SHARD_REASONING_CHARS) {
+                shardReasoning = shardReasoning.substring(0, MAX_SHARD_REASONING_CHARS) + "...";
+            }
+            reasoning.append("\n\nPart ").append(index + 1).append(" (").append(describeGenres(shards.get(index)))
+                    .append("): ").append(shardReasoning);
+        }
+
+        LLMClient.GameRecommendations merged = new LLMClient.GameRecommendations();
+        merged.reasoning = reasoning.toString();
+        merged.answer = candidates.values().stream()
+                .sorted(Comparator.comparingInt((Candidate candidate) -> candidate.votes).reversed()
+                        .thenComparingInt(candidate -> candidate.bestPosition))
+                .limit(ANSWER_SIZE)
+                .map(candidate -> candidate.title)
+                .collect(Collectors.toList());
+        return merged;
+    }
+
+    private static String describeGenres(List<PromptBuilder.PromptEntry> shard) {
+        Map<String, Integer> counts = new TreeMap<>();
+        for (PromptBuilder.PromptEntry entry : shard) {
+            counts.merge(entry.getGenres().isEmpty() ? OTHER_GENRE : entry.getGenres().get(0), 1, Integer::sum);
+        }
+        return counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(3)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.joining(", "));
+    }
+
+    private static class Candidate {
+        final String title;
+        int votes;
+        int bestPosition = Integer.MAX_VALUE;
+
+        Candidate(String title) {
+            this.title = title;
+        }
+
+        void vote(int position) {
+            votes++;
+            bestPosition = Math.min(bestPosition, position);
+        }
+    }
+}
@@ -1,15 +1,22 @@
 package org.alexw.gamecurator.misc;
 
-import com.google.gson.JsonObject;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
 import com.google.gson.JsonParser;
 
+import org.alexw.gamecurator.util.FutureUtils;
+
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.net.URI;
 import java.net.URLEncoder;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
 public class APIClient {
@@ -22,6 +29,10 @@ public class APIClient {
             .build();
 
     public static CompletableFuture<String> getTopGames() {
+        return getTopGames(RequestScheduler.Lane.INTERACTIVE);
+    }
+
+    public static CompletableFuture<String> getTopGames(RequestScheduler.Lane lane) {
         String apiKey = SettingsManager.getRawgApiKey();
         if (apiKey == null || apiKey.trim().isEmpty()) {
             System.err.println("RAWG API Key is missing. Please configure it in the settings.");
@@ -35,10 +46,14 @@ public class APIClient {
         }
 
         String url = String.format("https://api.rawg.io/api/games?key=%s&page_size=%d", apiKey, GLOBAL_PAGE_SIZE);
-        return fetchAndCache(url, cacheKey);
+        return fetchAndCache(url, cacheKey, lane);
     }
 
     public static CompletableFuture<String> getNewGames() {
+        return getNewGames(RequestScheduler.Lane.INTERACTIVE);
+    }
+
+    public static CompletableFuture<String> getNewGames(RequestScheduler.Lane lane) {
         String apiKey = SettingsManager.getRawgApiKey();
         if (apiKey == null || apiKey.trim().isEmpty()) {
             System.err.println("RAWG API Key is missing. Please configure it in the settings.");
@@ -52,10 +67,39 @@ public class APIClient {
         }
 
         String url = String.format("https://api.rawg.io/api/games?key=%s&page_size=%d&ordering=-released&metacritic=60,100", apiKey, GLOBAL_PAGE_SIZE);
-        return fetchAndCache(url, cacheKey);
+        return fetchAndCache(url, cacheKey, lane);
+    }
+
+    public static JsonArray parseSearchResults(String json) {
+        if (json == null || json.isBlank()) {
+            return new JsonArray();
+        }
+        try {
+            JsonElement parsed = JsonParser.parseString(json);
+            if (parsed.isJsonArray()) {
+                return parsed.getAsJsonArray();
+            }
+            if (parsed.isJsonObject() && parsed.getAsJsonObject().has("results")
+                    && parsed.getAsJsonObject().get("results").isJsonArray()) {
+                return parsed.getAsJsonObject().getAsJsonArray("results");
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Could not parse search results: " + e.getMessage());
+        }
+        return new JsonArray();
     }
 
     public static CompletableFuture<String> searchGames(String searchQuery) {
+        return searchGames(searchQuery, RequestScheduler.Lane.INTERACTIVE);
+    }
+
+    public static CompletableFuture<String> searchGames(String searchQuery, RequestScheduler.Lane lane) {
+        return searchGames(searchQuery, lane, null);
+    }
+
+    // With pendingWrites, fresh results are collected there for the caller to store with one CacheManager.putAll,
+    // and failed requests fail the returned future instead of completing it with an empty result.
+    public static CompletableFuture<String> searchGames(String searchQuery, RequestScheduler.Lane lane, Map<String, String> pendingWrites) {
         String apiKey = SettingsManager.getRawgApiKey();
         if (apiKey == null || apiKey.trim().isEmpty()) {
             System.err.println("RAWG API Key is missing. Please configure it in the settings.");
@@ -69,53 +113,78 @@ public class APIClient {
 
         String cacheKey = "search_" + sanitizedQuery.replaceAll("\\s+", "_");
         String cachedData = CacheManager.get(cacheKey);
+        if (cachedData == null && pendingWrites != null) {
+            cachedData = pendingWrites.get(cacheKey);
+        }
         if (cachedData != null) {
             return CompletableFuture.completedFuture(cachedData);
         }
 
         String encodedQuery = URLEncoder.encode(sanitizedQuery, StandardCharsets.UTF_8);
 		String url = String.format("https://api.rawg.io/api/games?key=%s&page_size=%d&search=%s", apiKey, GLOBAL_PAGE_SIZE, encodedQuery);
-		return fetchAndCache(url, cacheKey);
+        if (pendingWrites == null) {
+            return fetchAndCache(url, cacheKey, lane);
+        }
+        CompletableFuture<String> exchange = fetchResults(url, cacheKey, lane);
+        CompletableFuture<String> result = exchange.thenApply(resultsJson -> {
+            pendingWrites.put(cacheKey, resultsJson);
+            return resultsJson;
+        });
+        return FutureUtils.propagateCancellation(result, exchange);
+    }
+
+    private static CompletableFuture<String> fetchAndCache(String url, String cacheKey, RequestScheduler.Lane lane) {
+        CompletableFuture<String> exchange = fetchResults(url, cacheKey, lane);
+        CompletableFuture<String> result = exchange
+                .thenApply(resultsJson -> {
+                    CacheManager.put(cacheKey, resultsJson);
+                    return resultsJson;
+                })
+                .exceptionally(e -> {
+                    if (FutureUtils.isCancellation(e)) {
+                        System.out.println("Request for key '" + cacheKey + "' was cancelled.");
+                        return "[]";
+                    }
+                    System.err.println("Error fetching data for key '" + cacheKey + "'. Error: " + FutureUtils.unwrap(e).getMessage());
+                    return "[]";
+                });
+        return FutureUtils.propagateCancellation(result, exchange);
     }
 
-    private static CompletableFuture<String> fetchAndCache(String url, String cacheKey) {
+    private static CompletableFuture<String> fetchResults(String url, String cacheKey, RequestScheduler.Lane lane) {
         HttpRequest request = HttpRequest.newBuilder()
                 .uri(URI.create(url))
                 .GET()
                 .header("Accept", "application/json")
+                .header("Accept-Encoding", CompressedBodyHandler.ACCEPT_ENCODING)
                 .build();
 
         System.out.println("Cache miss for: " + cacheKey + ". Fetching from API: " + url);
 
-        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
-                .thenApply(response -> {
-                    if (response.statusCode() >= 200 && response.statusCode() < 300) {
-                        String jsonBody = response.body();
-                        try {
-
-                            JsonObject parsedJson = JsonParser.parseString(jsonBody).getAsJsonObject();
-                            if (parsedJson.has("results") && parsedJson.get("results").isJsonArray()) {
-                                String resultsJson = parsedJson.get("results").toString(); 
-                                CacheManager.put(cacheKey, resultsJson);
-                                return resultsJson;
-                            } else {
-                                System.err.println("API response for key '" + cacheKey + "' missing 'results' array. URL: " + url);
-                                return "[]";
-                            }
-                        } catch (Exception e) {
-                            System.err.println("Failed to parse JSON response for key '" + cacheKey + "'. Error: " + e.getMessage() + ". URL: " + url);
-                            return "[]";
-                        }
-                    } else {
-
-                        System.err.println("API Error for key '" + cacheKey + "'. Status: " + response.statusCode() + ". Body: " + response.body() + ". URL: " + url);
-                        return "[]";
-                    }
-                })
-                .exceptionally(e -> {
-                    System.err.println("Error fetching data for key '" + cacheKey + "'. Error: " + e.getMessage() + ". URL: " + url);
-                    e.printStackTrace();
-                    return "[]";
-                });
+        return RequestScheduler.getInstance().submit(lane, () -> CompressedBodyHandler.consume(
+                httpClient.sendAsync(request, CompressedBodyHandler.create()), response -> readResults(response, cacheKey, url)));
+    }
+
+    private static String readResults(HttpResponse<InputStream> response, String cacheKey, String url) {
+        if (response.statusCode() < 200 || response.statusCode() >= 300) {
+            String errorBody;
+            try {
+                errorBody = CompressedBodyHandler.readString(response.body());
+            } catch (IOException e) {
+                errorBody = "<unreadable: " + e.getMessage() + ">";
+            }
+            throw new IllegalStateException("API Error for key '" + cacheKey + "'. Status: " + response.statusCode() + ". Body: " + errorBody + ". URL: " + url);
+        }
+        JsonElement parsedElement;
+        try (Reader reader = new InputStreamReader(response.body(), StandardCharsets.UTF_8)) {
+            parsedElement = JsonParser.parseReader(reader);
+        } catch (IOException | RuntimeException e) {
+            throw new IllegalStateException("Failed to parse JSON response for key '" + cacheKey + "'. Error: " + e.getMessage() + ". URL: " + url, e);
+        }
+        if (!parsedElement.isJsonObject() || !parsedElement.getAsJsonObject().has("results")
+                || !parsedElement.getAsJsonObject().get("results").isJsonArray()) {
+            throw new IllegalStateException("API response for key '" + cacheKey + "' missing 'results' array. URL: " + url);
+        }
+        return parsedElement.getAsJsonObject().get("results").toString();
     }
 }
\ No newline at end of file
@@ -0,0 +1,142 @@
+package org.alexw.gamecurator.misc;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+public class BoundedMemoryCache<K, V> {
+
+    private final long maxWeight;
+    private final ToLongFunction<V> weigher;
+    private final LinkedHashMap<K, Entry<V>> retained = new LinkedHashMap<>(64, 0.75f, true);
+    // Values evicted from the budget stay reachable here for as long as something else
+    // (e.g. an ImageView on screen) still holds them, so they are reused instead of decoded again.
+    private final Map<K, KeyedReference<K, V>> released = new HashMap<>();
+    private final ReferenceQueue<V> releasedQueue = new ReferenceQueue<>();
+    private long currentWeight;
+
+    private long hits;
+    private long releasedHits;
+    private long misses;
+    private long evictions;
+
+    public BoundedMemoryCache(long maxWeight, ToLongFunction<V> weigher) {
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+    }
+
+    public synchronized V get(K key) {
+        purgeCollected();
+        Entry<V> entry = retained.get(key);
+        if (entry != null) {
+            hits++;
+            return entry.value;
+        }
+        KeyedReference<K, V> reference = released.remove(key);
+        V value = (reference != null) ? reference.get() : null;
+        if (value != null) {
+            releasedHits++;
+            retain(key, value);
+            return value;
+        }
+        misses++;
+        return null;
+    }
+
+    public synchronized void put(K key, V value) {
+        purgeCollected();
+        released.remove(key);
+        retain(key, value);
+    }
+
+    private void retain(K key, V value) {
+        long weight = Math.max(0, weigher.applyAsLong(value));
+        Entry<V> previous = retained.put(key, new Entry<>(value, weight));
+        if (previous != null) {
+            currentWeight -= previous.weight;
+        }
+        currentWeight += weight;
+        evictIfNeeded(key);
+    }
+
+    private void evictIfNeeded(K justAdded) {
+        Iterator<Map.Entry<K, Entry<V>>> iterator = retained.entrySet().iterator();
+        while (currentWeight > maxWeight && iterator.hasNext()) {
+            Map.Entry<K, Entry<V>> eldest = iterator.next();
+            if (eldest.getKey().equals(justAdded) && retained.size() == 1) {
+                break;
+            }
+            iterator.remove();
+            currentWeight -= eldest.getValue().weight;
+            released.put(eldest.getKey(), new KeyedReference<>(eldest.getKey(), eldest.getValue().value, releasedQueue));
+            evictions++;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void purgeCollected() {
+        KeyedReference<K, V> collected;
+        while ((collected = (KeyedReference<K, V>) releasedQueue.poll()) != null) {
+            released.remove(collected.key, collected);
+        }
+    }
+
+    public synchronized void clear() {
+        retained.clear();
+        released.clear();
+        currentWeight = 0;
+    }
+
+    public synchronized long getWeight() {
+        return currentWeight;
+    }
+
+    public synchronized int getRetainedCount() {
+        return retained.size();
+    }
+
+    public synchronized long getHitCount() {
+        return hits + releasedHits;
+    }
+
+    public synchronized long getMissCount() {
+        return misses;
+    }
+
+    public synchronized long getEvictionCount() {
+        return evictions;
+    }
+
+    public synchronized double getHitRate() {
+        long requests = hits + releasedHits + misses;
+        return requests == 0 ? 0.0 : (double) (hits + releasedHits) / requests;
+    }
+
+    public synchronized String describeStats() {
+        return String.format("%d retained (%d bytes of %d), %d hits (%d from released), %d misses, %d evictions, hit rate %.1f%%",
+                retained.size(), currentWeight, maxWeight, hits + releasedHits, releasedHits, misses, evictions, getHitRate() * 100);
+    }
+
+    private static class Entry<V> {
+        final V value;
+        final long weight;
+
+        Entry(V value, long weight) {
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+
+    private static class KeyedReference<K, V> extends WeakReference<V> {
+        final K key;
+
+        KeyedReference(K key, V value, ReferenceQueue<V> queue) {
+            super(value, queue);
+            this.key = key;
+        }
+    }
+}
@@ -11,6 +11,8 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
@@ -71,6 +73,17 @@ public class CacheManager {
         saveCacheToFile();
     }
 
+    public static void putAll(Map<String, String> items) {
+        if (items == null || items.isEmpty()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (Map.Entry<String, String> item : items.entrySet()) {
+            cache.put(CACHE_PREFIX + item.getKey(), new CacheEntry(item.getValue(), now));
+        }
+        saveCacheToFile();
+    }
+
     public static boolean remove(String item) {
         String key = CACHE_PREFIX + item;
         CacheEntry removedEntry = cache.remove(key);
@@ -81,6 +94,22 @@ public class CacheManager {
         return wasRemoved;
     }
 
+    public static int removeAll(Collection<String> items) {
+        int removed = 0;
+        if (items == null) {
+            return removed;
+        }
+        for (String item : items) {
+            if (cache.remove(CACHE_PREFIX + item) != null) {
+                removed++;
+            }
+        }
+        if (removed > 0) {
+            saveCacheToFile();
+        }
+        return removed;
+    }
+
     public static void clear() {
         boolean changed = false;
 
@@ -99,6 +128,18 @@ public class CacheManager {
         }
     }
 
+    public static Map<String, String> getEntries(String itemPrefix) {
+        String keyPrefix = CACHE_PREFIX + itemPrefix;
+        long now = System.currentTimeMillis();
+        Map<String, String> entries = new HashMap<>();
+        for (Map.Entry<String, CacheEntry> entry : cache.entrySet()) {
+            if (entry.getKey().startsWith(keyPrefix) && now - entry.getValue().creationTime <= CACHE_TTL) {
+                entries.put(entry.getKey().substring(CACHE_PREFIX.length()), entry.getValue().jsonData);
+            }
+        }
+        return entries;
+    }
+
     public static long getCount() {
 
         return cache.keySet().stream().filter(key -> key.startsWith(CACHE_PREFIX)).count();
@@ -0,0 +1,202 @@
+package org.alexw.gamecurator.misc;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+public class CompressedBodyHandler implements HttpResponse.BodyHandler<InputStream> {
+
+    public static final String ACCEPT_ENCODING = "gzip, deflate";
+
+    private static final AtomicLong wireBytes = new AtomicLong();
+    private static final AtomicLong decodedBytes = new AtomicLong();
+    private static final AtomicLong compressedResponses = new AtomicLong();
+    private static final AtomicLong totalResponses = new AtomicLong();
+
+    private static final CompressedBodyHandler INSTANCE = new CompressedBodyHandler();
+
+    private CompressedBodyHandler() {
+    }
+
+    public static HttpResponse.BodyHandler<InputStream> create() {
+        return INSTANCE;
+    }
+
+    @Override
+    public HttpResponse.BodySubscriber<InputStream> apply(HttpResponse.ResponseInfo responseInfo) {
+        String encoding = responseInfo.headers().firstValue("Content-Encoding").orElse("identity");
+        return HttpResponse.BodySubscribers.mapping(
+                HttpResponse.BodySubscribers.ofInputStream(),
+                rawStream -> decode(rawStream, encoding));
+    }
+
+    static InputStream decode(InputStream rawStream, String contentEncoding) {
+        String encoding = (contentEncoding == null) ? "identity" : contentEncoding.trim().toLowerCase(Locale.ROOT);
+        totalResponses.incrementAndGet();
+        InputStream wireCounted = new CountingInputStream(rawStream, wireBytes);
+
+        switch (encoding) {
+            case "gzip":
+            case "x-gzip":
+                compressedResponses.incrementAndGet();
+                return new CountingInputStream(new LazyDecoderInputStream(wireCounted, true), decodedBytes);
+            case "deflate":
+                compressedResponses.incrementAndGet();
+                return new CountingInputStream(new LazyDecoderInputStream(wireCounted, false), decodedBytes);
+            case "identity":
+            case "":
+                return new CountingInputStream(wireCounted, decodedBytes);
+            default:
+                System.err.println("Unsupported Content-Encoding '" + encoding + "', reading body as-is.");
+                return new CountingInputStream(wireCounted, decodedBytes);
+        }
+    }
+
+    public static String readString(InputStream body) throws IOException {
+        try (InputStream in = body) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            in.transferTo(out);
+            return out.toString(StandardCharsets.UTF_8);
+        }
+    }
+
+    // The exchange completes at response headers; the returned future only completes once the body has been
+    // read, and cancelling it closes the body stream so a transfer that already started is aborted too.
+    public static <T> CompletableFuture<T> consume(CompletableFuture<HttpResponse<InputStream>> exchange,
+                                                   Function<HttpResponse<InputStream>, T> reader) {
+        CompletableFuture<T> body = exchange.thenApply(reader);
+        body.whenComplete((value, error) -> {
+            if (body.isCancelled()) {
+                exchange.cancel(true);
+                exchange.thenAccept(response -> {
+                    try {
+                        response.body().close();
+                    } catch (IOException e) {
+                        System.err.println("Error closing cancelled response body: " + e.getMessage());
+                    }
+                });
+            }
+        });
+        return body;
+    }
+
+    public static long getWireBytes() {
+        return wireBytes.get();
+    }
+
+    public static long getDecodedBytes() {
+        return decodedBytes.get();
+    }
+
+    public static long getCompressedResponseCount() {
+        return compressedResponses.get();
+    }
+
+    public static long getResponseCount() {
+        return totalResponses.get();
+    }
+
+    public static String describeStats() {
+        long wire = getWireBytes();
+        long decoded = getDecodedBytes();
+        double ratio = (decoded == 0) ? 1.0 : (double) wire / decoded;
+        return String.format("%d responses (%d compressed), %d bytes on wire, %d bytes decoded (%.0f%%)",
+                getResponseCount(), getCompressedResponseCount(), wire, decoded, ratio * 100);
+    }
+
+    private static class CountingInputStream extends FilterInputStream {
+        private final AtomicLong counter;
+
+        CountingInputStream(InputStream in, AtomicLong counter) {
+            super(in);
+            this.counter = counter;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                counter.incrementAndGet();
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                counter.addAndGet(n);
+            }
+            return n;
+        }
+    }
+
+    // Decoder streams read their header in the constructor, which must not happen inside the
+    // BodySubscriber mapping function, so the decoder is only created on the first read.
+    private static class LazyDecoderInputStream extends InputStream {
+        private final InputStream source;
+        private final boolean gzip;
+        private InputStream decoder;
+        private Inflater inflater;
+
+        LazyDecoderInputStream(InputStream source, boolean gzip) {
+            this.source = source;
+            this.gzip = gzip;
+        }
+
+        private InputStream decoder() throws IOException {
+            if (decoder == null) {
+                if (gzip) {
+                    decoder = new GZIPInputStream(source, 8192);
+                } else {
+                    PushbackInputStream pushback = new PushbackInputStream(source, 2);
+                    byte[] header = pushback.readNBytes(2);
+                    pushback.unread(header);
+                    boolean zlibWrapped = header.length == 2
+                            && (header[0] & 0x0F) == 8
+                            && (((header[0] & 0xFF) << 8) | (header[1] & 0xFF)) % 31 == 0;
+                    inflater = new Inflater(!zlibWrapped);
+                    decoder = new InflaterInputStream(pushback, inflater, 8192);
+                }
+            }
+            return decoder;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return decoder().read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            return decoder().read(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                if (decoder != null) {
+                    decoder.close();
+                } else {
+                    source.close();
+                }
+            } finally {
+                // InflaterInputStream only ends inflaters it created itself, so release the native zlib state here.
+                if (inflater != null) {
+                    inflater.end();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package org.alexw.gamecurator.misc;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+public class DiskImageCache {
+
+    private static final String FILE_SUFFIX = ".img";
+
+    private final Path directory;
+    private final long maxBytes;
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long totalBytes;
+
+    public DiskImageCache(Path directory, long maxBytes) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        loadIndex();
+    }
+
+    private void loadIndex() {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        List<Path> files = new ArrayList<>();
+        try (Stream<Path> stream = Files.list(directory)) {
+            stream.filter(p -> p.getFileName().toString().endsWith(FILE_SUFFIX)).forEach(files::add);
+        } catch (IOException e) {
+            System.err.println("Error reading image cache directory: " + directory + ". " + e.getMessage());
+            return;
+        }
+        files.sort(Comparator.comparingLong(DiskImageCache::lastModifiedMillis));
+        for (Path file : files) {
+            try {
+                long size = Files.size(file);
+                entries.put(file.getFileName().toString(), size);
+                totalBytes += size;
+            } catch (IOException e) {
+                System.err.println("Skipping unreadable image cache file: " + file);
+            }
+        }
+        evictIfNeeded();
+        System.out.println("Image cache loaded from: " + directory + " (" + entries.size() + " files, " + totalBytes + " bytes)");
+    }
+
+    private static long lastModifiedMillis(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+
+    public synchronized byte[] get(String url) {
+        String fileName = fileNameFor(url);
+        if (entries.get(fileName) == null) {
+            return null;
+        }
+        Path file = directory.resolve(fileName);
+        try {
+            byte[] data = Files.readAllBytes(file);
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            return data;
+        } catch (IOException e) {
+            System.err.println("Error reading cached image for " + url + ": " + e.getMessage());
+            Long size = entries.remove(fileName);
+            if (size != null) {
+                totalBytes -= size;
+            }
+            return null;
+        }
+    }
+
+    public synchronized void put(String url, byte[] data) {
+        if (data == null || data.length == 0 || data.length > maxBytes) {
+            return;
+        }
+        String fileName = fileNameFor(url);
+        Path file = directory.resolve(fileName);
+        Path tempFile = null;
+        try {
+            Files.createDirectories(directory);
+            tempFile = Files.createTempFile(directory, "img", ".tmp");
+            Files.write(tempFile, data);
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("Error writing cached image for " + url + ": " + e.getMessage());
+            deleteQuietly(tempFile);
+            return;
+        }
+        Long previous = entries.put(fileName, (long) data.length);
+        if (previous != null) {
+            totalBytes -= previous;
+        }
+        totalBytes += data.length;
+        evictIfNeeded();
+    }
+
+    public synchronized boolean contains(String url) {
+        return entries.containsKey(fileNameFor(url));
+    }
+
+    public synchronized void clear() {
+        for (String fileName : entries.keySet()) {
+            try {
+                Files.deleteIfExists(directory.resolve(fileName));
+            } catch (IOException e) {
+                System.err.println("Error deleting cached image: " + fileName);
+            }
+        }
+        entries.clear();
+        totalBytes = 0;
+        System.out.println("Image cache CLEARED.");
+    }
+
+    public synchronized long getSizeBytes() {
+        return totalBytes;
+    }
+
+    public synchronized int getCount() {
+        return entries.size();
+    }
+
+    private void evictIfNeeded() {
+        Iterator<Map.Entry<String, Long>> iterator = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && iterator.hasNext()) {
+            Map.Entry<String, Long> eldest = iterator.next();
+            try {
+                Files.deleteIfExists(directory.resolve(eldest.getKey()));
+            } catch (IOException e) {
+                System.err.println("Error evicting cached image: " + eldest.getKey());
+            }
+            totalBytes -= eldest.getValue();
+            iterator.remove();
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            System.err.println("Error deleting temporary image file: " + file);
+        }
+    }
+
+    static String fileNameFor(String url) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(url.getBytes(StandardCharsets.UTF_8))) + FILE_SUFFIX;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package org.alexw.gamecurator.misc;
+
+import javafx.scene.image.Image;
+import org.alexw.gamecurator.util.FutureUtils;
+import org.alexw.gamecurator.util.NamedThreadFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class ImageService {
+
+    private static final String RAWG_MEDIA_HOST = "media.rawg.io";
+    private static final String RAWG_MEDIA_PREFIX = "/media/";
+    private static final int THUMBNAIL_CROP_WIDTH = 600;
+    private static final int THUMBNAIL_CROP_HEIGHT = 400;
+    private static final String IMAGE_CACHE_DIR_NAME = ".gamecurator/cache/images";
+    private static final long MAX_DISK_CACHE_BYTES = 256L * 1024 * 1024;
+    private static final long MAX_DECODED_IMAGE_BYTES = 64L * 1024 * 1024;
+
+    private static final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .build();
+
+    private static final ExecutorService ioExecutor = Executors.newFixedThreadPool(2, new NamedThreadFactory("image-io"));
+
+    private static final BoundedMemoryCache<String, Image> memoryCache = new BoundedMemoryCache<>(
+            MAX_DECODED_IMAGE_BYTES, image -> (long) image.getWidth() * (long) image.getHeight() * 4);
+    private static final Map<String, SharedLoad> inFlight = new HashMap<>();
+
+    private static DiskImageCache diskCache;
+
+    private static synchronized DiskImageCache getDiskCache() {
+        if (diskCache == null) {
+            diskCache = new DiskImageCache(Paths.get(System.getProperty("user.home"), IMAGE_CACHE_DIR_NAME), MAX_DISK_CACHE_BYTES);
+        }
+        return diskCache;
+    }
+
+    public static CompletableFuture<Image> loadThumbnail(String imageUrl, double width, double height) {
+        String key = memoryKey(imageUrl, width, height);
+        Image cached = memoryCache.get(key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        SharedLoad load;
+        synchronized (inFlight) {
+            load = inFlight.get(key);
+            if (load == null) {
+                load = new SharedLoad(decodeThumbnail(imageUrl, width, height));
+                inFlight.put(key, load);
+                SharedLoad registered = load;
+                load.future.whenComplete((image, error) -> {
+                    synchronized (inFlight) {
+                        inFlight.remove(key, registered);
+                    }
+                    if (image != null) {
+                        memoryCache.put(key, image);
+                    }
+                });
+            }
+            load.waiters++;
+        }
+
+        SharedLoad sharedLoad = load;
+        CompletableFuture<Image> waiter = sharedLoad.future.copy();
+        waiter.whenComplete((image, error) -> {
+            if (waiter.isCancelled()) {
+                synchronized (inFlight) {
+                    sharedLoad.waiters--;
+                    if (sharedLoad.waiters > 0) {
+                        return;
+                    }
+                    inFlight.remove(key, sharedLoad);
+                }
+                sharedLoad.future.cancel(true);
+            }
+        });
+        return waiter;
+    }
+
+    private static CompletableFuture<Image> decodeThumbnail(String imageUrl, double width, double height) {
+        String thumbnailUrl = toThumbnailUrl(imageUrl);
+        CompletableFuture<byte[]> bytesFuture = fetchBytes(thumbnailUrl);
+        CompletableFuture<Image> imageFuture = bytesFuture.thenApplyAsync(bytes -> {
+            Image image = new Image(new ByteArrayInputStream(bytes), width, height, true, true);
+            if (image.isError()) {
+                throw new IllegalStateException("Could not decode image: " + thumbnailUrl, image.getException());
+            }
+            return image;
+        }, ioExecutor);
+        return FutureUtils.propagateCancellation(imageFuture, bytesFuture);
+    }
+
+    private static String memoryKey(String imageUrl, double width, double height) {
+        return imageUrl + "@" + (int) Math.ceil(width) + "x" + (int) Math.ceil(height);
+    }
+
+    static String toThumbnailUrl(String imageUrl) {
+        try {
+            URI uri = URI.create(imageUrl);
+            String path = uri.getPath();
+            if (!RAWG_MEDIA_HOST.equalsIgnoreCase(uri.getHost()) || path == null || !path.startsWith(RAWG_MEDIA_PREFIX)) {
+                return imageUrl;
+            }
+            String mediaPath = path.substring(RAWG_MEDIA_PREFIX.length());
+            if (mediaPath.startsWith("crop/") || mediaPath.startsWith("resize/")) {
+                return imageUrl;
+            }
+            return uri.getScheme() + "://" + uri.getHost() + RAWG_MEDIA_PREFIX
+                    + "crop/" + THUMBNAIL_CROP_WIDTH + "/" + THUMBNAIL_CROP_HEIGHT + "/" + mediaPath;
+        } catch (IllegalArgumentException e) {
+            return imageUrl;
+        }
+    }
+
+    private static CompletableFuture<byte[]> fetchBytes(String url) {
+        CompletableFuture<byte[]> result = new CompletableFuture<>();
+        CompletableFuture.runAsync(() -> {
+            if (result.isDone()) {
+                return;
+            }
+            byte[] cached = getDiskCache().get(url);
+            if (cached != null) {
+                result.complete(cached);
+                return;
+            }
+            CompletableFuture<byte[]> download = RequestScheduler.getInstance()
+                    .submit(RequestScheduler.Lane.VISIBLE_IMAGE, () -> download(url));
+            FutureUtils.propagateCancellation(result, download);
+            download.whenComplete((bytes, error) -> {
+                if (error != null) {
+                    result.completeExceptionally(error);
+                } else {
+                    result.complete(bytes);
+                }
+            });
+        }, ioExecutor);
+        return result;
+    }
+
+    private static CompletableFuture<byte[]> download(String url) {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(url))
+                .GET()
+                .build();
+
+        CompletableFuture<HttpResponse<byte[]>> exchange = httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray());
+        CompletableFuture<byte[]> body = exchange.thenApplyAsync(response -> {
+            if (response.statusCode() < 200 || response.statusCode() >= 300) {
+                throw new IllegalStateException(new IOException("Image request failed with status " + response.statusCode() + ": " + url));
+            }
+            byte[] bytes = response.body();
+            getDiskCache().put(url, bytes);
+            return bytes;
+        }, ioExecutor);
+        return FutureUtils.propagateCancellation(body, exchange);
+    }
+
+    public static void clearDiskCache() {
+        getDiskCache().clear();
+        memoryCache.clear();
+    }
+
+    public static String describeMemoryCacheStats() {
+        return memoryCache.describeStats();
+    }
+
+    public static long getDiskCacheSizeBytes() {
+        return getDiskCache().getSizeBytes();
+    }
+
+    private static class SharedLoad {
+        final CompletableFuture<Image> future;
+        int waiters;
+
+        SharedLoad(CompletableFuture<Image> future) {
+            this.future = future;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package org.alexw.gamecurator.misc;
+
+import org.alexw.gamecurator.util.IntSet;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+public class LibraryStore implements AutoCloseable {
+
+    private static final String LIBRARY_DIR_NAME = ".gamecurator";
+    private static final String LIBRARY_DB_NAME = "library.db";
+
+    private final Path databasePath;
+    private Connection connection;
+
+    public LibraryStore(Path databasePath) {
+        this.databasePath = databasePath;
+        open();
+    }
+
+    public static LibraryStore openDefault() {
+        return new LibraryStore(Paths.get(System.getProperty("user.home"), LIBRARY_DIR_NAME, LIBRARY_DB_NAME));
+    }
+
+    private void open() {
+        try {
+            Path parent = databasePath.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            connection = DriverManager.getConnection("jdbc:sqlite:" + databasePath.toAbsolutePath());
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("PRAGMA journal_mode=WAL");
+                statement.execute("PRAGMA synchronous=NORMAL");
+                statement.execute("CREATE TABLE IF NOT EXISTS library_items ("
+                        + "game_id INTEGER PRIMARY KEY, "
+                        + "added_at INTEGER NOT NULL)");
+            }
+            System.out.println("Library store opened at: " + databasePath);
+        } catch (IOException | SQLException e) {
+            System.err.println("Error opening library store at " + databasePath + ": " + e.getMessage());
+            connection = null;
+        }
+    }
+
+    public synchronized IntSet loadIds() {
+        if (connection == null) {
+            return IntSet.empty();
+        }
+        List<Integer> ids = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT game_id FROM library_items")) {
+            while (resultSet.next()) {
+                ids.add(resultSet.getInt(1));
+            }
+        } catch (SQLException e) {
+            System.err.println("Error reading library store: " + e.getMessage());
+            return IntSet.empty();
+        }
+        return IntSet.of(ids.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    public synchronized boolean addAll(int[] gameIds) {
+        return apply(gameIds, new int[0]);
+    }
+
+    public synchronized boolean apply(int[] addedIds, int[] removedIds) {
+        if (connection == null) {
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        try {
+            connection.setAutoCommit(false);
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT OR IGNORE INTO library_items (game_id, added_at) VALUES (?, ?)");
+                 PreparedStatement delete = connection.prepareStatement(
+                    "DELETE FROM library_items WHERE game_id = ?")) {
+                for (int gameId : removedIds) {
+                    delete.setInt(1, gameId);
+                    delete.addBatch();
+                }
+                for (int gameId : addedIds) {
+                    insert.setInt(1, gameId);
+                    insert.setLong(2, now);
+                    insert.addBatch();
+                }
+                delete.executeBatch();
+                insert.executeBatch();
+            }
+            connection.commit();
+            return true;
+        } catch (SQLException e) {
+            System.err.println("Error writing library store batch: " + e.getMessage());
+            rollbackQuietly();
+            return false;
+        } finally {
+            restoreAutoCommit();
+        }
+    }
+
+    public synchronized boolean clear() {
+        if (connection == null) {
+            return false;
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("DELETE FROM library_items");
+            return true;
+        } catch (SQLException e) {
+            System.err.println("Error clearing library store: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void rollbackQuietly() {
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            System.err.println("Error rolling back library store transaction: " + e.getMessage());
+        }
+    }
+
+    private void restoreAutoCommit() {
+        try {
+            connection.setAutoCommit(true);
+        } catch (SQLException e) {
+            System.err.println("Error restoring library store auto-commit: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing library store: " + e.getMessage());
+        }
+        connection = null;
+    }
+}
@@ -0,0 +1,194 @@
+package org.alexw.gamecurator.misc;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+public class RequestScheduler {
+
+    public enum Lane {
+        INTERACTIVE(4, false),
+        VISIBLE_IMAGE(6, false),
+        PREFETCH(2, true),
+        BACKGROUND(1, true),
+        BULK(4, true);
+
+        private final int defaultMaxConcurrent;
+        private final boolean speculative;
+
+        Lane(int defaultMaxConcurrent, boolean speculative) {
+            this.defaultMaxConcurrent = defaultMaxConcurrent;
+            this.speculative = speculative;
+        }
+
+        public boolean isSpeculative() {
+            return speculative;
+        }
+    }
+
+    private static final RequestScheduler instance = new RequestScheduler();
+
+    private final Map<Lane, LaneState> lanes = new EnumMap<>(Lane.class);
+
+    public static RequestScheduler getInstance() {
+        return instance;
+    }
+
+    RequestScheduler() {
+        for (Lane lane : Lane.values()) {
+            lanes.put(lane, new LaneState(lane.defaultMaxConcurrent));
+        }
+    }
+
+    public synchronized void setMaxConcurrent(Lane lane, int maxConcurrent) {
+        lanes.get(lane).maxConcurrent = Math.max(1, maxConcurrent);
+        dispatchLater();
+    }
+
+    public <T> CompletableFuture<T> submit(Lane lane, Supplier<CompletableFuture<T>> work) {
+        ScheduledRequest<T> request = new ScheduledRequest<>(lane, work);
+        request.result.whenComplete((value, error) -> {
+            if (request.result.isCancelled()) {
+                onCancelled(request);
+            }
+        });
+        synchronized (this) {
+            lanes.get(lane).queue.addLast(request);
+        }
+        dispatch();
+        return request.result;
+    }
+
+    public void cancelOnNavigation() {
+        int cancelled = cancelLane(Lane.VISIBLE_IMAGE) + cancelLane(Lane.PREFETCH);
+        if (cancelled > 0) {
+            System.out.println("Navigation cancelled " + cancelled + " queued or in-flight speculative requests.");
+        }
+    }
+
+    public int cancelLane(Lane lane) {
+        List<ScheduledRequest<?>> toCancel;
+        synchronized (this) {
+            LaneState state = lanes.get(lane);
+            toCancel = new ArrayList<>(state.queue);
+            toCancel.addAll(state.running);
+        }
+        for (ScheduledRequest<?> request : toCancel) {
+            request.result.cancel(true);
+        }
+        return toCancel.size();
+    }
+
+    public synchronized int getQueuedCount(Lane lane) {
+        return lanes.get(lane).queue.size();
+    }
+
+    public synchronized int getRunningCount(Lane lane) {
+        return lanes.get(lane).running.size();
+    }
+
+    private void onCancelled(ScheduledRequest<?> request) {
+        CompletableFuture<?> inFlight;
+        synchronized (this) {
+            LaneState state = lanes.get(request.lane);
+            state.queue.remove(request);
+            inFlight = request.inFlight;
+        }
+        if (inFlight != null) {
+            inFlight.cancel(true);
+        }
+    }
+
+    private void dispatchLater() {
+        CompletableFuture.runAsync(this::dispatch);
+    }
+
+    private void dispatch() {
+        List<ScheduledRequest<?>> toStart = new ArrayList<>();
+        synchronized (this) {
+            LaneState interactive = lanes.get(Lane.INTERACTIVE);
+            boolean foregroundBusy = !interactive.queue.isEmpty() || !interactive.running.isEmpty();
+
+            for (Lane lane : Lane.values()) {
+                if (lane.isSpeculative() && foregroundBusy) {
+                    continue;
+                }
+                LaneState state = lanes.get(lane);
+                while (state.running.size() < state.maxConcurrent && !state.queue.isEmpty()) {
+                    ScheduledRequest<?> next = state.queue.pollFirst();
+                    if (next.result.isDone()) {
+                        continue;
+                    }
+                    state.running.add(next);
+                    toStart.add(next);
+                }
+            }
+        }
+        for (ScheduledRequest<?> request : toStart) {
+            start(request);
+        }
+    }
+
+    private <T> void start(ScheduledRequest<T> request) {
+        CompletableFuture<T> inFlight;
+        try {
+            inFlight = request.work.get();
+        } catch (Exception e) {
+            inFlight = CompletableFuture.failedFuture(e);
+        }
+        synchronized (this) {
+            request.inFlight = inFlight;
+        }
+        if (request.result.isCancelled()) {
+            inFlight.cancel(true);
+        }
+        inFlight.whenComplete((value, error) -> {
+            synchronized (this) {
+                lanes.get(request.lane).running.remove(request);
+            }
+            if (error != null) {
+                request.result.completeExceptionally(error);
+            } else {
+                request.result.complete(value);
+            }
+            dispatch();
+        });
+        request.result.whenComplete((value, error) -> {
+            if (error instanceof CancellationException) {
+                synchronized (this) {
+                    lanes.get(request.lane).running.remove(request);
+                }
+                dispatch();
+            }
+        });
+    }
+
+    private static class LaneState {
+        final ArrayDeque<ScheduledRequest<?>> queue = new ArrayDeque<>();
+        final Set<ScheduledRequest<?>> running = new HashSet<>();
+        int maxConcurrent;
+
+        LaneState(int maxConcurrent) {
+            this.maxConcurrent = maxConcurrent;
+        }
+    }
+
+    private static class ScheduledRequest<T> {
+        final Lane lane;
+        final Supplier<CompletableFuture<T>> work;
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        CompletableFuture<T> inFlight;
+
+        ScheduledRequest(Lane lane, Supplier<CompletableFuture<T>> work) {
+            this.lane = lane;
+            this.work = work;
+        }
+    }
+}
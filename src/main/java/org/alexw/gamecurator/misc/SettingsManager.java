@@ -7,6 +7,13 @@ public class SettingsManager {
     private static final String PREF_NODE_PATH = "org/alexw/gamecurator";
     private static final String LLM_API_KEY = "llmApiKey";
     private static final String RAWG_API_KEY = "rawgApiKey";
+    private static final String PROMPT_TOKEN_BUDGET = "promptTokenBudget";
+    public static final int DEFAULT_PROMPT_TOKEN_BUDGET = 6000;
+    private static final String SHARDED_RECOMMENDATIONS = "shardedRecommendationsEnabled";
+    private static final String RECOMMENDATION_PARALLELISM = "recommendationParallelism";
+    private static final String RECOMMENDATION_SHARD_TIMEOUT = "recommendationShardTimeoutSeconds";
+    public static final int DEFAULT_RECOMMENDATION_PARALLELISM = 3;
+    public static final int DEFAULT_RECOMMENDATION_SHARD_TIMEOUT = 60;
 
     private static Preferences getPreferences() {
 
@@ -36,4 +43,36 @@ public class SettingsManager {
             getPreferences().remove(RAWG_API_KEY); 
         }
     }
-}
\ No newline at end of file
+
+    public static int getPromptTokenBudget() {
+        return getPreferences().getInt(PROMPT_TOKEN_BUDGET, DEFAULT_PROMPT_TOKEN_BUDGET);
+    }
+
+    public static void setPromptTokenBudget(int tokenBudget) {
+        getPreferences().putInt(PROMPT_TOKEN_BUDGET, tokenBudget);
+    }
+
+    public static boolean isShardedRecommendationsEnabled() {
+        return getPreferences().getBoolean(SHARDED_RECOMMENDATIONS, false);
+    }
+
+    public static void setShardedRecommendationsEnabled(boolean enabled) {
+        getPreferences().putBoolean(SHARDED_RECOMMENDATIONS, enabled);
+    }
+
+    public static int getRecommendationParallelism() {
+        return getPreferences().getInt(RECOMMENDATION_PARALLELISM, DEFAULT_RECOMMENDATION_PARALLELISM);
+    }
+
+    public static void setRecommendationParallelism(int parallelism) {
+        getPreferences().putInt(RECOMMENDATION_PARALLELISM, parallelism);
+    }
+
+    public static int getRecommendationShardTimeoutSeconds() {
+        return getPreferences().getInt(RECOMMENDATION_SHARD_TIMEOUT, DEFAULT_RECOMMENDATION_SHARD_TIMEOUT);
+    }
+
+    public static void setRecommendationShardTimeoutSeconds(int timeoutSeconds) {
+        getPreferences().putInt(RECOMMENDATION_SHARD_TIMEOUT, timeoutSeconds);
+    }
+}
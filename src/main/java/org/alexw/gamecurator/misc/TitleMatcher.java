@@ -0,0 +1,127 @@
+package org.alexw.gamecurator.misc;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+public class TitleMatcher {
+
+    public static final double DEFAULT_MIN_SCORE = 0.72;
+
+    private static final Map<String, String> ROMAN_NUMERALS = Map.of(
+            "ii", "2", "iii", "3", "iv", "4", "v", "5",
+            "vi", "6", "vii", "7", "viii", "8", "ix", "9", "x", "10");
+
+    private final double minScore;
+
+    public TitleMatcher() {
+        this(DEFAULT_MIN_SCORE);
+    }
+
+    public TitleMatcher(double minScore) {
+        this.minScore = minScore;
+    }
+
+    public JsonObject bestMatch(String title, Iterable<JsonElement> candidates) {
+        String query = normalize(title);
+        if (query.isEmpty()) {
+            return null;
+        }
+        JsonObject best = null;
+        double bestScore = minScore;
+        for (JsonElement candidate : candidates) {
+            if (!candidate.isJsonObject()) {
+                continue;
+            }
+            JsonObject game = candidate.getAsJsonObject();
+            if (!game.has("name") || !game.get("name").isJsonPrimitive() || !game.has("id")) {
+                continue;
+            }
+            double score = score(query, normalize(game.get("name").getAsString()));
+            if (score > bestScore || (score == bestScore && best == null)) {
+                best = game;
+                bestScore = score;
+            }
+        }
+        return best;
+    }
+
+    public static double similarity(String first, String second) {
+        return score(normalize(first), normalize(second));
+    }
+
+    public static String normalize(String title) {
+        if (title == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(title.replaceAll("[\\u2122\\u00AE\\u00A9]", ""), Normalizer.Form.NFKD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT)
+                .replace("&", " and ")
+                .replaceAll("[^a-z0-9]+", " ")
+                .trim();
+        if (decomposed.isEmpty()) {
+            return decomposed;
+        }
+        String[] tokens = decomposed.split(" ");
+        for (int i = 0; i < tokens.length; i++) {
+            tokens[i] = ROMAN_NUMERALS.getOrDefault(tokens[i], tokens[i]);
+        }
+        return String.join(" ", tokens);
+    }
+
+    private static double score(String query, String candidate) {
+        if (query.isEmpty() || candidate.isEmpty()) {
+            return 0.0;
+        }
+        if (query.equals(candidate)) {
+            return 1.0;
+        }
+        double editSimilarity = 1.0 - (double) editDistance(query, candidate) / Math.max(query.length(), candidate.length());
+        double tokenSimilarity = tokenOverlap(query, candidate);
+        return Math.max(editSimilarity, 0.4 * editSimilarity + 0.6 * tokenSimilarity);
+    }
+
+    private static double tokenOverlap(String query, String candidate) {
+        Set<String> queryTokens = new HashSet<>(Arrays.asList(query.split(" ")));
+        Set<String> candidateTokens = new HashSet<>(Arrays.asList(candidate.split(" ")));
+        int shared = 0;
+        for (String token : queryTokens) {
+            if (candidateTokens.contains(token)) {
+                shared++;
+            }
+        }
+        int union = queryTokens.size() + candidateTokens.size() - shared;
+        return union == 0 ? 0.0 : (double) shared / union;
+    }
+
+    private static int editDistance(String first, String second) {
+        int[] beforePrevious = new int[second.length() + 1];
+        int[] previous = new int[second.length() + 1];
+        int[] current = new int[second.length() + 1];
+        for (int j = 0; j <= second.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= first.length(); i++) {
+            current[0] = i;
+            for (int j = 1; j <= second.length(); j++) {
+                int cost = first.charAt(i - 1) == second.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && first.charAt(i - 1) == second.charAt(j - 2) && first.charAt(i - 2) == second.charAt(j - 1)) {
+                    current[j] = Math.min(current[j], beforePrevious[j - 2] + 1);
+                }
+            }
+            int[] recycled = beforePrevious;
+            beforePrevious = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous[second.length()];
+    }
+}
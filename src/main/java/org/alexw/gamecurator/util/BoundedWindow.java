@@ -0,0 +1,103 @@
+package org.alexw.gamecurator.util;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+public class BoundedWindow<T, R> {
+
+    public interface Callback<T, R> {
+        void onComplete(int index, T item, R value, Throwable error);
+    }
+
+    private final List<T> items;
+    private final int width;
+    private final Function<T, CompletableFuture<R>> start;
+    private final Callback<T, R> callback;
+    private final Map<Integer, CompletableFuture<R>> inFlight = new ConcurrentHashMap<>();
+    private final CompletableFuture<Void> done = new CompletableFuture<>();
+    private int next;
+    private int running;
+    private int completed;
+    private boolean pumping;
+
+    private BoundedWindow(List<T> items, int width, Function<T, CompletableFuture<R>> start, Callback<T, R> callback) {
+        this.items = items;
+        this.width = Math.max(1, width);
+        this.start = start;
+        this.callback = callback;
+    }
+
+    // Starts at most width items at a time and reports each one to the callback as it finishes. The returned
+    // future completes once every item has been reported; cancelling it cancels the items still in flight.
+    public static <T, R> CompletableFuture<Void> run(List<T> items, int width, Function<T, CompletableFuture<R>> start,
+                                                     Callback<T, R> callback) {
+        BoundedWindow<T, R> window = new BoundedWindow<>(List.copyOf(items), width, start, callback);
+        window.done.whenComplete((value, error) -> {
+            if (error != null) {
+                window.inFlight.values().forEach(future -> future.cancel(true));
+            }
+        });
+        if (window.items.isEmpty()) {
+            window.done.complete(null);
+        }
+        window.pump();
+        return window.done;
+    }
+
+    // Lookups that are already complete call back into pump() from launch(); the flag turns that into another
+    // turn of the running loop instead of a nested call, so the stack stays flat however many items there are.
+    private void pump() {
+        synchronized (this) {
+            if (pumping) {
+                return;
+            }
+            pumping = true;
+        }
+        while (true) {
+            int index;
+            synchronized (this) {
+                if (done.isDone() || running >= width || next >= items.size()) {
+                    pumping = false;
+                    return;
+                }
+                index = next++;
+                running++;
+            }
+            launch(index);
+        }
+    }
+
+    private void launch(int index) {
+        CompletableFuture<R> future;
+        try {
+            future = start.apply(items.get(index));
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        inFlight.put(index, future);
+        future.whenComplete((value, error) -> finish(index, value, error));
+    }
+
+    private void finish(int index, R value, Throwable error) {
+        inFlight.remove(index);
+        try {
+            callback.onComplete(index, items.get(index), value, error);
+        } catch (Throwable e) {
+            done.completeExceptionally(e);
+            return;
+        }
+        boolean finished;
+        synchronized (this) {
+            running--;
+            finished = ++completed == items.size();
+        }
+        if (finished) {
+            done.complete(null);
+        } else {
+            pump();
+        }
+    }
+}
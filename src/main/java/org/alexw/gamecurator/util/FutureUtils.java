@@ -0,0 +1,46 @@
+package org.alexw.gamecurator.util;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+public class FutureUtils {
+
+    public static <T> CompletableFuture<T> propagateCancellation(CompletableFuture<T> dependent, CompletableFuture<?> source) {
+        dependent.whenComplete((value, error) -> {
+            if (dependent.isCancelled()) {
+                source.cancel(true);
+            }
+        });
+        return dependent;
+    }
+
+    // Unlike orTimeout, which only fails the future it is called on, this also cancels the source so the work behind
+    // it is abandoned. The returned future completes only after that cancellation has been requested.
+    public static <T> CompletableFuture<T> cancelOnTimeout(CompletableFuture<T> source, long timeout, TimeUnit unit) {
+        CompletableFuture<T> timed = source.copy().orTimeout(timeout, unit).whenComplete((value, error) -> {
+            if (error != null) {
+                source.cancel(true);
+            }
+        });
+        return propagateCancellation(timed, source);
+    }
+
+    public static boolean isCancellation(Throwable error) {
+        Throwable current = error;
+        while ((current instanceof CompletionException || current instanceof ExecutionException) && current.getCause() != null) {
+            current = current.getCause();
+        }
+        return current instanceof CancellationException;
+    }
+
+    public static Throwable unwrap(Throwable error) {
+        Throwable current = error;
+        while ((current instanceof CompletionException || current instanceof ExecutionException) && current.getCause() != null) {
+            current = current.getCause();
+        }
+        return current;
+    }
+}
@@ -5,6 +5,8 @@ import javafx.scene.paint.Color;
 import org.kordamp.ikonli.javafx.FontIcon;
 import org.kordamp.ikonli.materialdesign.MaterialDesign;
 
+import java.util.Map;
+
 public class IconFactory {
 
     private static final Color DEFAULT_ICON_COLOR = Color.BLACK;
@@ -18,34 +20,47 @@ public class IconFactory {
         return createIcon(iconIdentifier, size, DEFAULT_ICON_COLOR);
     }
 
-    public static Node createIcon(String iconIdentifier, double size, Color color) {
-        FontIcon icon = new FontIcon();
+    private static final Map<String, MaterialDesign> ICONS = Map.ofEntries(
+            Map.entry("STAR", MaterialDesign.MDI_STAR),
+            Map.entry("CALENDAR", MaterialDesign.MDI_CALENDAR),
+            Map.entry("SEARCH", MaterialDesign.MDI_MAGNIFY),
+            Map.entry("BOOKMARK", MaterialDesign.MDI_BOOKMARK),
+            Map.entry("SETTINGS", MaterialDesign.MDI_SETTINGS),
+            Map.entry("AUTO_FIX", MaterialDesign.MDI_AUTO_FIX),
 
-        switch (iconIdentifier.toUpperCase()) {
+            Map.entry("ADD", MaterialDesign.MDI_PLUS_BOX),
+            Map.entry("REMOVE", MaterialDesign.MDI_MINUS_BOX),
+            Map.entry("SHARE", MaterialDesign.MDI_SHARE_VARIANT),
+            Map.entry("REFRESH", MaterialDesign.MDI_REFRESH),
+            Map.entry("ROBOT", MaterialDesign.MDI_ROBOT),
 
-            case "STAR":          icon.setIconCode(MaterialDesign.MDI_STAR); break;
-            case "CALENDAR":      icon.setIconCode(MaterialDesign.MDI_CALENDAR); break;
-            case "SEARCH":        icon.setIconCode(MaterialDesign.MDI_MAGNIFY); break;
-            case "BOOKMARK":      icon.setIconCode(MaterialDesign.MDI_BOOKMARK); break;
-            case "SETTINGS":      icon.setIconCode(MaterialDesign.MDI_SETTINGS); break;
-            case "AUTO_FIX":      icon.setIconCode(MaterialDesign.MDI_AUTO_FIX); break; 
+            Map.entry("DELETE", MaterialDesign.MDI_DELETE),
+            Map.entry("RESTORE", MaterialDesign.MDI_RESTORE),
+            Map.entry("EXPORT", MaterialDesign.MDI_EXPORT),
+            Map.entry("IMPORT", MaterialDesign.MDI_IMPORT),
+            Map.entry("PLAYLIST_ADD", MaterialDesign.MDI_PLAYLIST_PLUS)
+    );
 
-            case "ADD":           icon.setIconCode(MaterialDesign.MDI_PLUS_BOX); break;
-            case "REMOVE":        icon.setIconCode(MaterialDesign.MDI_MINUS_BOX); break;
-            case "SHARE":         icon.setIconCode(MaterialDesign.MDI_SHARE_VARIANT); break;
-            case "REFRESH":       icon.setIconCode(MaterialDesign.MDI_REFRESH); break; 
-            case "ROBOT":         icon.setIconCode(MaterialDesign.MDI_ROBOT); break; 
-
-            case "DELETE":        icon.setIconCode(MaterialDesign.MDI_DELETE); break;
-            case "RESTORE":       icon.setIconCode(MaterialDesign.MDI_RESTORE); break;
+    public static Node createIcon(String iconIdentifier, double size, Color color) {
+        FontIcon icon = new FontIcon();
 
-            default:
-                System.err.println("Warning: Unknown icon identifier: " + iconIdentifier);
-                icon.setIconCode(MaterialDesign.MDI_HELP_CIRCLE);
-                break;
+        MaterialDesign iconCode = ICONS.get(iconIdentifier);
+        if (iconCode == null) {
+            iconCode = ICONS.get(iconIdentifier.toUpperCase());
+        }
+        if (iconCode == null) {
+            System.err.println("Warning: Unknown icon identifier: " + iconIdentifier);
+            iconCode = MaterialDesign.MDI_HELP_CIRCLE;
         }
+        icon.setIconCode(iconCode);
         icon.setIconSize((int) size);
         icon.setIconColor(color != null ? color : DEFAULT_ICON_COLOR);
         return icon;
     }
-}
\ No newline at end of file
+
+    public static Node getCachedIcon(Node owner, String iconIdentifier, double size) {
+        return (Node) owner.getProperties().computeIfAbsent(
+                "gamecurator.icon." + iconIdentifier + "@" + size,
+                key -> createIcon(iconIdentifier, size));
+    }
+}
@@ -0,0 +1,108 @@
+package org.alexw.gamecurator.util;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.IntConsumer;
+
+public final class IntSet {
+
+    private static final IntSet EMPTY = new IntSet(new int[0]);
+
+    private final int[] values;
+
+    private IntSet(int[] sortedDistinctValues) {
+        this.values = sortedDistinctValues;
+    }
+
+    public static IntSet empty() {
+        return EMPTY;
+    }
+
+    public static IntSet of(int... values) {
+        if (values == null || values.length == 0) {
+            return EMPTY;
+        }
+        int[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int distinct = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[distinct - 1]) {
+                sorted[distinct++] = sorted[i];
+            }
+        }
+        return new IntSet(distinct == sorted.length ? sorted : Arrays.copyOf(sorted, distinct));
+    }
+
+    public boolean contains(int value) {
+        return Arrays.binarySearch(values, value) >= 0;
+    }
+
+    public int size() {
+        return values.length;
+    }
+
+    public boolean isEmpty() {
+        return values.length == 0;
+    }
+
+    public IntSet with(int value) {
+        int position = Arrays.binarySearch(values, value);
+        if (position >= 0) {
+            return this;
+        }
+        int insertAt = -position - 1;
+        int[] next = new int[values.length + 1];
+        System.arraycopy(values, 0, next, 0, insertAt);
+        next[insertAt] = value;
+        System.arraycopy(values, insertAt, next, insertAt + 1, values.length - insertAt);
+        return new IntSet(next);
+    }
+
+    public IntSet without(int value) {
+        int position = Arrays.binarySearch(values, value);
+        if (position < 0) {
+            return this;
+        }
+        if (values.length == 1) {
+            return EMPTY;
+        }
+        int[] next = new int[values.length - 1];
+        System.arraycopy(values, 0, next, 0, position);
+        System.arraycopy(values, position + 1, next, position, values.length - position - 1);
+        return new IntSet(next);
+    }
+
+    public void forEach(IntConsumer action) {
+        for (int value : values) {
+            action.accept(value);
+        }
+    }
+
+    public int[] toArray() {
+        return values.clone();
+    }
+
+    public Set<Integer> toSet() {
+        Set<Integer> boxed = new HashSet<>(values.length * 2);
+        for (int value : values) {
+            boxed.add(value);
+        }
+        return boxed;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof IntSet && Arrays.equals(values, ((IntSet) other).values);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(values);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(values);
+    }
+}
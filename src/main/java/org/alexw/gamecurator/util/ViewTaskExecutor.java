@@ -0,0 +1,60 @@
+package org.alexw.gamecurator.util;
+
+import javafx.concurrent.Task;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class ViewTaskExecutor {
+
+    private static final int MAX_THREADS = 3;
+
+    private static final ExecutorService executor = Executors.newFixedThreadPool(MAX_THREADS, new NamedThreadFactory("view-load"));
+    private static final Map<String, Task<?>> slots = new HashMap<>();
+
+    public static <T> Task<T> submit(String slot, Task<T> task) {
+        Task<?> previous;
+        synchronized (slots) {
+            previous = slots.put(slot, task);
+        }
+        if (previous != null && !previous.isDone()) {
+            System.out.println("Superseding in-flight '" + slot + "' load.");
+            previous.cancel(true);
+        }
+        executor.execute(task);
+        return task;
+    }
+
+    public static void cancel(String slot) {
+        Task<?> current;
+        synchronized (slots) {
+            current = slots.remove(slot);
+        }
+        if (current != null && !current.isDone()) {
+            current.cancel(true);
+        }
+    }
+
+    public static boolean isCurrent(String slot, Task<?> task) {
+        synchronized (slots) {
+            return slots.get(slot) == task;
+        }
+    }
+
+    public static <T> T await(CompletableFuture<T> future) throws Exception {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw e;
+        } catch (ExecutionException e) {
+            Throwable cause = FutureUtils.unwrap(e);
+            throw (cause instanceof Exception) ? (Exception) cause : e;
+        }
+    }
+}
@@ -1,11 +1,11 @@
 package org.alexw.gamecurator.view;
 
-import com.google.gson.JsonElement;
+import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
 import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
+import javafx.scene.Node;
 import javafx.scene.Parent;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
@@ -14,24 +14,56 @@ import javafx.scene.text.Text;
 import javafx.scene.text.TextFlow;
 import org.alexw.gamecurator.LibraryManager;
 import org.alexw.gamecurator.ai.LLMClient;
-import org.alexw.gamecurator.misc.CacheManager;
+import org.alexw.gamecurator.ai.LocalRecommender;
+import org.alexw.gamecurator.ai.PromptBuilder;
+import org.alexw.gamecurator.ai.PromptFragmentCache;
+import org.alexw.gamecurator.ai.RecommendationCache;
+import org.alexw.gamecurator.ai.ShardedRecommender;
+import org.alexw.gamecurator.ai.RecommendationStreamParser;
+import org.alexw.gamecurator.misc.APIClient;
+import org.alexw.gamecurator.misc.SettingsManager;
+import org.alexw.gamecurator.misc.TitleMatcher;
 import org.alexw.gamecurator.util.DialogUtils;
 import org.alexw.gamecurator.util.IconFactory;
+import org.alexw.gamecurator.util.IntSet;
 
-import java.util.Set;
+import java.time.Duration;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
 import java.util.prefs.Preferences;
 
 public class AssistantViewFactory implements ViewFactory {
 
     private final LibraryManager libraryManager;
     private final Preferences prefs;
+    private final GameItemNodeFactory gameItemNodeFactory;
+    private final TitleMatcher titleMatcher = new TitleMatcher();
+    private final PromptFragmentCache promptFragments;
     private static final String PREF_AI_RECOMMENDATIONS = "aiRecommendationsEnabled";
+    private static final String REQUEST_TOKEN_KEY = "gamecurator.recommendationRequestToken";
+    private AssistantView currentView;
 
-    public AssistantViewFactory(LibraryManager libraryManager, Preferences prefs) {
+    public AssistantViewFactory(LibraryManager libraryManager, Preferences prefs, GameItemNodeFactory gameItemNodeFactory) {
         this.libraryManager = libraryManager;
         this.prefs = prefs;
+        this.gameItemNodeFactory = gameItemNodeFactory;
+        this.promptFragments = PromptFragmentCache.start(libraryManager);
+        libraryManager.addChangeListener(changes -> Platform.runLater(this::refreshLibraryState));
+    }
+
+    private void refreshLibraryState() {
+        AssistantView view = currentView;
+        if (view == null) {
+            return;
+        }
+        boolean aiEnabled = prefs.getBoolean(PREF_AI_RECOMMENDATIONS, true);
+        boolean libraryEmpty = libraryManager.getLibrarySnapshot().isEmpty();
+        if (!view.loadingIndicator.isVisible()) {
+            view.getRecsButton.setDisable(!aiEnabled || libraryEmpty);
+            view.regenerateButton.setDisable(!aiEnabled || libraryEmpty);
+        }
+        updateStatusLabel(view.statusLabel, aiEnabled, libraryEmpty);
     }
 
     @Override
@@ -43,15 +75,19 @@ public class AssistantViewFactory implements ViewFactory {
         Button getRecsButton = new Button("Get Recommendations");
         getRecsButton.setGraphic(IconFactory.createIcon("REFRESH", IconFactory.BUTTON_ICON_SIZE));
 
+        Button regenerateButton = new Button("Regenerate");
+        regenerateButton.setGraphic(IconFactory.createIcon("REFRESH", IconFactory.BUTTON_ICON_SIZE));
+
         boolean aiEnabled = prefs.getBoolean(PREF_AI_RECOMMENDATIONS, true);
-        boolean libraryEmpty = libraryManager.getLibraryItemIds().isEmpty();
+        boolean libraryEmpty = libraryManager.getLibrarySnapshot().isEmpty();
         getRecsButton.setDisable(!aiEnabled || libraryEmpty);
+        regenerateButton.setDisable(!aiEnabled || libraryEmpty);
 
         ProgressIndicator loadingIndicator = new ProgressIndicator();
         loadingIndicator.setMaxSize(30, 30);
         loadingIndicator.setVisible(false); 
 
-        HBox buttonArea = new HBox(10, getRecsButton, loadingIndicator);
+        HBox buttonArea = new HBox(10, getRecsButton, regenerateButton, loadingIndicator);
         buttonArea.setAlignment(Pos.CENTER_LEFT);
 
         ScrollPane scrollPane = new ScrollPane();
@@ -65,12 +101,17 @@ public class AssistantViewFactory implements ViewFactory {
         Label statusLabel = new Label();
         updateStatusLabel(statusLabel, aiEnabled, libraryEmpty); 
         resultsContainer.getChildren().add(statusLabel);
+        AssistantView assistantView = new AssistantView(getRecsButton, regenerateButton, statusLabel, loadingIndicator);
+        currentView = assistantView;
 
-        getRecsButton.setOnAction(event -> {
+        Consumer<Boolean> requestRecommendations = regenerate -> {
 
             boolean currentAiEnabled = prefs.getBoolean(PREF_AI_RECOMMENDATIONS, true);
-            Set<Integer> libraryIds = libraryManager.getLibraryItemIds();
-            boolean currentLibraryEmpty = libraryIds.isEmpty();
+            IntSet librarySnapshot = libraryManager.getLibrarySnapshot();
+            boolean currentLibraryEmpty = librarySnapshot.isEmpty();
+            int tokenBudget = SettingsManager.getPromptTokenBudget();
+            boolean sharded = SettingsManager.isShardedRecommendationsEnabled();
+            String promptVariant = "budget=" + tokenBudget + (sharded ? ";sharded" : "");
 
             if (currentLibraryEmpty) {
                 DialogUtils.showInfoDialog("Empty Library", "Please add games to your library before getting recommendations.");
@@ -85,91 +126,113 @@ public class AssistantViewFactory implements ViewFactory {
                 return;
             }
 
+            Object requestToken = new Object();
+            resultsContainer.getProperties().put(REQUEST_TOKEN_KEY, requestToken);
+
+            if (!regenerate) {
+                LLMClient.GameRecommendations cached = RecommendationCache.get(librarySnapshot, promptVariant);
+                if (cached != null) {
+                    resultsContainer.getChildren().clear();
+                    new StreamingRecommendations(resultsContainer, null).finish(cached);
+                    Label cacheLabel = new Label("Showing recommendations saved for this library in the last 24 hours (cache " + RecommendationCache.describeStats() + "). Click 'Regenerate' for fresh ones.");
+                    cacheLabel.setWrapText(true);
+                    updateStatusLabel(statusLabel, currentAiEnabled, currentLibraryEmpty);
+                    resultsContainer.getChildren().addAll(cacheLabel, statusLabel);
+                    return;
+                }
+            }
+
             getRecsButton.setDisable(true);
+            regenerateButton.setDisable(true);
             loadingIndicator.setVisible(true);
             resultsContainer.getChildren().clear();
             Label generatingLabel = new Label("Generating recommendations... (This may take a moment)");
             resultsContainer.getChildren().add(generatingLabel);
+            showLocalPicks(librarySnapshot, resultsContainer, requestToken);
 
-            StringBuilder promptBuilder = new StringBuilder();
-            int gamesProcessed = 0;
-            for (int gameId : libraryIds) {
-                String gameDataJson = CacheManager.get("gameData_" + gameId);
-                if (gameDataJson != null) {
-                    try {
-                        JsonObject game = JsonParser.parseString(gameDataJson).getAsJsonObject();
-                        String name = game.has("name") ? game.get("name").getAsString() : "Unknown Title";
-
-                        String genres = "Unknown Genres";
-                        if (game.has("genres") && game.get("genres").isJsonArray()) {
-                            genres = game.getAsJsonArray("genres").asList().stream()
-                                    .filter(JsonElement::isJsonObject)
-                                    .map(g -> g.getAsJsonObject().has("name") ? g.getAsJsonObject().get("name").getAsString() : "")
-                                    .filter(s -> !s.isEmpty())
-                                    .collect(Collectors.joining(" "));
-                        }
-                        if (genres.isEmpty()) genres = "Unknown Genres";
+            long requestStartNanos = System.nanoTime();
+            CompletableFuture<List<PromptBuilder.PromptEntry>> entriesFuture = promptFragments.entriesFor(librarySnapshot);
+            CompletableFuture<PromptBuilder.Result> promptFuture = entriesFuture.thenApplyAsync(promptEntries -> promptEntries.isEmpty()
+                    ? null : new PromptBuilder(tokenBudget).build(promptEntries, libraryManager.getLibraryStats()), promptFragments.getExecutor());
 
-                        promptBuilder.append("Title: ").append(name).append("\n");
-                        promptBuilder.append("Genres: ").append(genres).append("\n---\n");
-                        gamesProcessed++;
-                    } catch (Exception e) {
-                        System.err.println("Error processing cached game data for ID " + gameId + " in AssistantViewFactory: " + e.getMessage());
-                    }
-                } else {
-                    System.err.println("Could not find cached game data for ID " + gameId + " in library (AssistantViewFactory).");
-                }
-            }
-
-            if (gamesProcessed == 0) {
-                System.err.println("Could not build prompt, no valid library game data found in cache.");
-
-                Platform.runLater(() -> {
+            promptFuture.whenCompleteAsync((prompt, promptError) -> {
+                if (promptError != null || prompt == null) {
+                    System.err.println("Could not build prompt, no valid library game data found in cache."
+                            + (promptError != null ? " " + promptError.getMessage() : ""));
                     loadingIndicator.setVisible(false);
                     resultsContainer.getChildren().remove(generatingLabel);
                     resultsContainer.getChildren().add(new Label("Error: Could not process library data for recommendations."));
                     boolean latestAiEnabled = prefs.getBoolean(PREF_AI_RECOMMENDATIONS, true);
-                    boolean latestLibraryEmpty = libraryManager.getLibraryItemIds().isEmpty();
+                    boolean latestLibraryEmpty = libraryManager.getLibrarySnapshot().isEmpty();
                     getRecsButton.setDisable(!latestAiEnabled || latestLibraryEmpty);
+                    regenerateButton.setDisable(!latestAiEnabled || latestLibraryEmpty);
                     updateStatusLabel(statusLabel, latestAiEnabled, latestLibraryEmpty);
                     resultsContainer.getChildren().add(statusLabel);
-                });
-                return; 
-            }
-            String userPrompt = promptBuilder.toString();
-
-            CompletableFuture<LLMClient.GameRecommendations> recommendationFuture =
-                    LLMClient.getGameRecommendations(userPrompt);
-
-            recommendationFuture.whenCompleteAsync((recommendations, error) -> {
-
-                boolean latestAiEnabled = prefs.getBoolean(PREF_AI_RECOMMENDATIONS, true);
-                boolean latestLibraryEmpty = libraryManager.getLibraryItemIds().isEmpty();
-                getRecsButton.setDisable(!latestAiEnabled || latestLibraryEmpty);
-
-                loadingIndicator.setVisible(false);
-                resultsContainer.getChildren().remove(generatingLabel);
-
-                if (error != null) {
-                    resultsContainer.getChildren().add(new Label("Received error:" + error));
-                } else if (recommendations != null) {
-
-                    displayRecommendations(recommendations, resultsContainer);
-                    updateStatusLabel(statusLabel, latestAiEnabled, latestLibraryEmpty);
-                    resultsContainer.getChildren().add(statusLabel);
-                } else {
-                    resultsContainer.getChildren().add(new Label("Received null recommendations without an error."));
-                    updateStatusLabel(statusLabel, latestAiEnabled, latestLibraryEmpty);
-                    resultsContainer.getChildren().add(statusLabel);
+                    return;
                 }
-
+                System.out.println("Recommendation prompt: " + prompt.describe() + ", ready "
+                        + (System.nanoTime() - requestStartNanos) / 1_000_000 + " ms after click.");
+                sendPrompt(prompt, entriesFuture.join(), librarySnapshot, promptVariant, tokenBudget, sharded,
+                        requestStartNanos, resultsContainer, generatingLabel, assistantView);
             }, Platform::runLater);
-        });
+        };
+        getRecsButton.setOnAction(event -> requestRecommendations.accept(false));
+        regenerateButton.setOnAction(event -> requestRecommendations.accept(true));
 
         assistantPane.getChildren().addAll(buttonArea, scrollPane);
         return assistantPane;
     }
 
+    private void sendPrompt(PromptBuilder.Result prompt, List<PromptBuilder.PromptEntry> promptEntries, IntSet librarySnapshot,
+                            String promptVariant, int tokenBudget, boolean sharded, long requestStartNanos,
+                            VBox resultsContainer, Label generatingLabel, AssistantView view) {
+        Button getRecsButton = view.getRecsButton;
+        Button regenerateButton = view.regenerateButton;
+        Label statusLabel = view.statusLabel;
+        ProgressIndicator loadingIndicator = view.loadingIndicator;
+        String userPrompt = prompt.getPrompt();
+
+        StreamingRecommendations streamingView = new StreamingRecommendations(resultsContainer, generatingLabel);
+        CompletableFuture<LLMClient.GameRecommendations> recommendationFuture;
+        if (sharded && prompt.getSummarizedCount() > 0) {
+            generatingLabel.setText("Generating recommendations from several parts of your library... (This may take a moment)");
+            recommendationFuture = new ShardedRecommender(tokenBudget, SettingsManager.getRecommendationParallelism(),
+                    Duration.ofSeconds(SettingsManager.getRecommendationShardTimeoutSeconds())).recommend(promptEntries);
+        } else {
+            recommendationFuture = LLMClient.streamGameRecommendations(userPrompt, streamingView);
+        }
+
+        recommendationFuture.thenApplyAsync(recommendations -> {
+            RecommendationCache.put(librarySnapshot, promptVariant, recommendations);
+            return recommendations;
+        }).whenCompleteAsync((recommendations, error) -> {
+            System.out.println("Recommendation request finished in " + (System.nanoTime() - requestStartNanos) / 1_000_000
+                    + " ms for ~" + prompt.getEstimatedTokens() + " prompt tokens (time to first token "
+                    + LLMClient.getLastTimeToFirstTokenMillis() + " ms).");
+
+            boolean latestAiEnabled = prefs.getBoolean(PREF_AI_RECOMMENDATIONS, true);
+            boolean latestLibraryEmpty = libraryManager.getLibrarySnapshot().isEmpty();
+            getRecsButton.setDisable(!latestAiEnabled || latestLibraryEmpty);
+            regenerateButton.setDisable(!latestAiEnabled || latestLibraryEmpty);
+
+            loadingIndicator.setVisible(false);
+            resultsContainer.getChildren().remove(generatingLabel);
+
+            if (error != null) {
+                resultsContainer.getChildren().add(new Label("Received error:" + error));
+            } else if (recommendations != null) {
+                streamingView.finish(recommendations);
+                updateStatusLabel(statusLabel, latestAiEnabled, latestLibraryEmpty);
+                resultsContainer.getChildren().add(statusLabel);
+            } else {
+                resultsContainer.getChildren().add(new Label("Received null recommendations without an error."));
+                updateStatusLabel(statusLabel, latestAiEnabled, latestLibraryEmpty);
+                resultsContainer.getChildren().add(statusLabel);
+            }
+
+        }, Platform::runLater);
+    }
+
     private void updateStatusLabel(Label label, boolean aiEnabled, boolean libraryEmpty) {
         if (!aiEnabled) {
             label.setText("AI Recommendations are disabled in Settings.");
@@ -183,29 +246,163 @@ public class AssistantViewFactory implements ViewFactory {
         }
     }
 
-    private void displayRecommendations(LLMClient.GameRecommendations recommendations, VBox container) {
-
-        if (recommendations.getReasoning() != null && !recommendations.getReasoning().isBlank()) {
-            Label reasoningHeader = new Label("AI Reasoning:");
-            reasoningHeader.setStyle("-fx-font-weight: bold;");
-            Text reasoningText = new Text(recommendations.getReasoning());
-            TextFlow reasoningFlow = new TextFlow(reasoningText);
-            reasoningFlow.setPadding(new Insets(0, 0, 10, 0));
-            container.getChildren().addAll(reasoningHeader, reasoningFlow);
-        }
-
+    private void displayAnswer(List<String> answer, VBox container) {
         Label answerHeader = new Label("Recommendations:");
         answerHeader.setStyle("-fx-font-weight: bold;");
         container.getChildren().add(answerHeader);
 
-        if (recommendations.getAnswer() == null || recommendations.getAnswer().isEmpty()) {
+        if (answer == null || answer.isEmpty()) {
             container.getChildren().add(new Label("No specific game titles were recommended."));
-        } else {
-            ListView<String> recListView = new ListView<>();
-            recListView.getItems().addAll(recommendations.getAnswer());
-            recListView.setPrefHeight(Math.min(recommendations.getAnswer().size() * 28.0 + 5, 300));
-            recListView.setMaxHeight(Region.USE_PREF_SIZE);
-            container.getChildren().add(recListView);
+            return;
+        }
+        VBox cards = new VBox(10);
+        container.getChildren().add(cards);
+        for (String title : answer) {
+            StackPane slot = new StackPane(new Label("Looking up \"" + title + "\"..."));
+            slot.setAlignment(Pos.CENTER_LEFT);
+            cards.getChildren().add(slot);
+            resolveRecommendation(title, slot);
+        }
+    }
+
+    private void showLocalPicks(IntSet librarySnapshot, VBox container, Object requestToken) {
+        CompletableFuture.supplyAsync(() -> new LocalRecommender(LocalRecommender.DEFAULT_LIMIT).recommendFromCache(librarySnapshot))
+                .whenCompleteAsync((result, error) -> {
+                    if (error != null) {
+                        System.err.println("Local recommendations failed: " + error.getMessage());
+                        return;
+                    }
+                    if (result.getPicks().isEmpty() || container.getProperties().get(REQUEST_TOKEN_KEY) != requestToken) {
+                        return;
+                    }
+                    VBox picks = new VBox(10);
+                    Label header = new Label("Quick picks from games you've browsed (computed locally in " + result.getElapsedMillis() + " ms):");
+                    header.setStyle("-fx-font-weight: bold;");
+                    picks.getChildren().add(header);
+                    for (LocalRecommender.Recommendation pick : result.getPicks()) {
+                        try {
+                            picks.getChildren().add(gameItemNodeFactory.createGameItemNode(pick.getGame()));
+                        } catch (Exception e) {
+                            System.err.println("Error creating game item node for local pick: " + e.getMessage());
+                        }
+                    }
+                    picks.setPadding(new Insets(0, 0, 10, 0));
+                    container.getChildren().add(0, picks);
+                }, Platform::runLater);
+    }
+
+    private void resolveRecommendation(String title, StackPane slot) {
+        long startNanos = System.nanoTime();
+        APIClient.searchGames(title)
+                .thenApply(json -> {
+                    JsonArray results = APIClient.parseSearchResults(json);
+                    JsonObject match = titleMatcher.bestMatch(title, results);
+                    if (match == null && !results.isEmpty() && results.get(0).isJsonObject()) {
+                        match = results.get(0).getAsJsonObject();
+                    }
+                    return match;
+                })
+                .whenCompleteAsync((game, error) -> {
+                    Node card;
+                    if (error != null) {
+                        System.err.println("Could not look up recommended game '" + title + "': " + error.getMessage());
+                        card = new Label(title + " (lookup failed)");
+                    } else if (game == null) {
+                        card = new Label(title + " (not found on RAWG)");
+                    } else {
+                        try {
+                            card = gameItemNodeFactory.createGameItemNode(game);
+                        } catch (Exception e) {
+                            System.err.println("Error creating game item node for recommendation '" + title + "': " + e.getMessage());
+                            card = new Label(title);
+                        }
+                    }
+                    slot.getChildren().setAll(card);
+                    System.out.println("Resolved recommendation '" + title + "' in " + (System.nanoTime() - startNanos) / 1_000_000 + " ms.");
+                }, Platform::runLater);
+    }
+
+    private class StreamingRecommendations implements RecommendationStreamParser.Listener {
+        private final VBox container;
+        private final Label generatingLabel;
+        private final StringBuilder pendingReasoning = new StringBuilder();
+        private boolean flushScheduled;
+        private TextFlow reasoningFlow;
+        private boolean answerShown;
+
+        StreamingRecommendations(VBox container, Label generatingLabel) {
+            this.container = container;
+            this.generatingLabel = generatingLabel;
+        }
+
+        @Override
+        public void onReasoning(String delta) {
+            synchronized (pendingReasoning) {
+                pendingReasoning.append(delta);
+                if (flushScheduled) {
+                    return;
+                }
+                flushScheduled = true;
+            }
+            Platform.runLater(this::flushReasoning);
+        }
+
+        @Override
+        public void onAnswer(List<String> answer) {
+            Platform.runLater(() -> showAnswer(answer));
+        }
+
+        private void flushReasoning() {
+            String chunk;
+            synchronized (pendingReasoning) {
+                chunk = pendingReasoning.toString();
+                pendingReasoning.setLength(0);
+                flushScheduled = false;
+            }
+            if (chunk.isEmpty()) {
+                return;
+            }
+            if (reasoningFlow == null) {
+                Label reasoningHeader = new Label("AI Reasoning:");
+                reasoningHeader.setStyle("-fx-font-weight: bold;");
+                reasoningFlow = new TextFlow();
+                reasoningFlow.setPadding(new Insets(0, 0, 10, 0));
+                int insertAt = Math.max(0, container.getChildren().indexOf(generatingLabel));
+                container.getChildren().addAll(insertAt, List.of(reasoningHeader, reasoningFlow));
+            }
+            reasoningFlow.getChildren().add(new Text(chunk));
+        }
+
+        private void showAnswer(List<String> answer) {
+            if (answerShown) {
+                return;
+            }
+            answerShown = true;
+            flushReasoning();
+            container.getChildren().remove(generatingLabel);
+            displayAnswer(answer, container);
+        }
+
+        void finish(LLMClient.GameRecommendations recommendations) {
+            if (reasoningFlow == null && recommendations.getReasoning() != null && !recommendations.getReasoning().isBlank()) {
+                onReasoning(recommendations.getReasoning());
+            }
+            flushReasoning();
+            showAnswer(recommendations.getAnswer());
+        }
+    }
+
+    private static class AssistantView {
+        final Button getRecsButton;
+        final Button regenerateButton;
+        final Label statusLabel;
+        final ProgressIndicator loadingIndicator;
+
+        AssistantView(Button getRecsButton, Button regenerateButton, Label statusLabel, ProgressIndicator loadingIndicator) {
+            this.getRecsButton = getRecsButton;
+            this.regenerateButton = regenerateButton;
+            this.statusLabel = statusLabel;
+            this.loadingIndicator = loadingIndicator;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,78 @@
+package org.alexw.gamecurator.view;
+
+import javafx.application.Platform;
+import javafx.scene.Node;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import org.alexw.gamecurator.misc.ImageService;
+import org.alexw.gamecurator.util.FutureUtils;
+
+import java.util.concurrent.CompletableFuture;
+
+class DeferredImage {
+
+    private static final String PROPERTY_KEY = "gamecurator.deferredImage";
+
+    private final ImageView imageView;
+    private final String imageUrl;
+    private CompletableFuture<Image> pending;
+    private boolean loaded;
+
+    private DeferredImage(ImageView imageView, String imageUrl) {
+        this.imageView = imageView;
+        this.imageUrl = imageUrl;
+    }
+
+    static void install(Node row, ImageView imageView, String imageUrl) {
+        imageView.setImage(null);
+        row.getProperties().put(PROPERTY_KEY, new DeferredImage(imageView, imageUrl));
+    }
+
+    static void uninstall(Node row) {
+        row.getProperties().remove(PROPERTY_KEY);
+    }
+
+    static DeferredImage of(Node row) {
+        Object value = row.getProperties().get(PROPERTY_KEY);
+        return (value instanceof DeferredImage) ? (DeferredImage) value : null;
+    }
+
+    boolean isLoadingOrLoaded() {
+        return loaded || pending != null;
+    }
+
+    void load() {
+        if (isLoadingOrLoaded()) {
+            return;
+        }
+        CompletableFuture<Image> imageFuture = ImageService.loadThumbnail(imageUrl, imageView.getFitWidth(), imageView.getFitHeight());
+        if (imageFuture.isDone() && !imageFuture.isCompletedExceptionally()) {
+            imageView.setImage(imageFuture.join());
+            loaded = true;
+            return;
+        }
+        pending = imageFuture;
+        imageFuture.whenCompleteAsync((image, error) -> {
+            if (pending != imageFuture) {
+                return;
+            }
+            pending = null;
+            if (error == null) {
+                imageView.setImage(image);
+                loaded = true;
+            } else if (!FutureUtils.isCancellation(error)) {
+                System.err.println("Failed to load image: " + imageUrl);
+                imageView.setImage(null);
+                loaded = true;
+            }
+        }, Platform::runLater);
+    }
+
+    void cancel() {
+        if (pending != null) {
+            CompletableFuture<Image> cancelled = pending;
+            pending = null;
+            cancelled.cancel(true);
+        }
+    }
+}
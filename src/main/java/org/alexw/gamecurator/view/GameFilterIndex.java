@@ -0,0 +1,115 @@
+package org.alexw.gamecurator.view;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+public class GameFilterIndex {
+
+    public static final int UNBOUNDED = -1;
+    static final int MISSING_PLAYTIME = -1;
+    private static final int MAX_GENRES = Long.SIZE;
+
+    private final Map<String, Integer> genreBits = new HashMap<>();
+    private final int size;
+    private final int[] playtimes;
+    private final long[] genreMasks;
+
+    private GameFilterIndex(List<JsonObject> games) {
+        for (String genre : new TreeSet<>(GameListViewFactory.AVAILABLE_GENRES)) {
+            genreBits.put(genre, genreBits.size());
+        }
+
+        size = games.size();
+        playtimes = new int[size];
+        genreMasks = new long[size];
+
+        for (int i = 0; i < size; i++) {
+            JsonObject game = games.get(i);
+            playtimes[i] = readPlaytime(game);
+            genreMasks[i] = readGenreMask(game);
+        }
+    }
+
+    public static GameFilterIndex build(List<JsonObject> games) {
+        return new GameFilterIndex(games);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long genreMask(Collection<String> genres) {
+        long mask = 0L;
+        if (genres == null) {
+            return mask;
+        }
+        for (String genre : genres) {
+            Integer bit = genreBits.get(genre);
+            if (bit != null) {
+                mask |= 1L << bit;
+            }
+        }
+        return mask;
+    }
+
+    public int evaluate(long requiredGenreMask, boolean genreFilterActive, int minPlaytime, int maxPlaytime, boolean[] matches) {
+        boolean playtimeFilterActive = minPlaytime != UNBOUNDED || maxPlaytime != UNBOUNDED;
+        int low = minPlaytime == UNBOUNDED ? 0 : minPlaytime;
+        int high = maxPlaytime == UNBOUNDED ? Integer.MAX_VALUE : maxPlaytime;
+        int matchCount = 0;
+
+        for (int i = 0; i < size; i++) {
+            boolean match = !genreFilterActive || (genreMasks[i] & requiredGenreMask) != 0;
+            if (match && playtimeFilterActive) {
+                int playtime = playtimes[i];
+                match = playtime != MISSING_PLAYTIME && playtime >= low && playtime <= high;
+            }
+            matches[i] = match;
+            if (match) {
+                matchCount++;
+            }
+        }
+        return matchCount;
+    }
+
+    private static int readPlaytime(JsonObject game) {
+        JsonElement playtime = game.get("playtime");
+        if (playtime == null || !playtime.isJsonPrimitive() || !playtime.getAsJsonPrimitive().isNumber()) {
+            return MISSING_PLAYTIME;
+        }
+        return Math.max(0, playtime.getAsInt());
+    }
+
+    private long readGenreMask(JsonObject game) {
+        JsonElement genres = game.get("genres");
+        if (genres == null || !genres.isJsonArray()) {
+            return 0L;
+        }
+        long mask = 0L;
+        for (JsonElement genre : (JsonArray) genres) {
+            if (!genre.isJsonObject()) {
+                continue;
+            }
+            JsonElement name = genre.getAsJsonObject().get("name");
+            if (name == null || !name.isJsonPrimitive()) {
+                continue;
+            }
+            Integer bit = genreBits.get(name.getAsString());
+            if (bit == null && genreBits.size() < MAX_GENRES) {
+                bit = genreBits.size();
+                genreBits.put(name.getAsString(), bit);
+            }
+            if (bit != null) {
+                mask |= 1L << bit;
+            }
+        }
+        return mask;
+    }
+}
@@ -3,30 +3,72 @@ package org.alexw.gamecurator.view;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import javafx.application.Platform;
-import javafx.fxml.FXMLLoader;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
 import javafx.scene.Node;
 import javafx.scene.Parent;
 import javafx.scene.control.*;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+import javafx.scene.text.Font;
 import javafx.scene.text.Text;
 import org.alexw.gamecurator.LibraryManager;
 import org.alexw.gamecurator.MainController;
 import org.alexw.gamecurator.util.IconFactory;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
 import java.util.stream.Collectors;
 
 public class GameItemNodeFactory {
 
+	private static final Font GAME_NAME_FONT = new Font("System Bold", 14.0);
+
 	private final LibraryManager libraryManager;
 	private final MainController mainController;
+	// Weakly held so rows that are dropped with their page do not outlive it.
+	private final Set<Button> libraryButtons = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+	private final LibraryManager.Listener libraryListener = this::onLibraryChanged;
 
-	public GameItemNodeFactory(LibraryManager libraryManager, MainController mainController) {
+	GameItemNodeFactory(LibraryManager libraryManager, MainController mainController) {
 		this.libraryManager = libraryManager;
 		this.mainController = mainController;
 	}
 
+	public static GameItemNodeFactory create(LibraryManager libraryManager, MainController mainController) {
+		GameItemNodeFactory factory = new GameItemNodeFactory(libraryManager, mainController);
+		libraryManager.addChangeListener(factory.libraryListener);
+		return factory;
+	}
+
+	public void close() {
+		if (libraryManager != null) {
+			libraryManager.removeChangeListener(libraryListener);
+		}
+	}
+
+	private void onLibraryChanged(LibraryManager.Changes changes) {
+		List<Button> buttons;
+		synchronized (libraryButtons) {
+			buttons = new ArrayList<>(libraryButtons);
+		}
+		for (Button button : buttons) {
+			Object userData = button.getUserData();
+			if (userData instanceof Integer) {
+				int gameId = (Integer) userData;
+				if (changes.getAddedIds().contains(gameId) || changes.getRemovedIds().contains(gameId)) {
+					updateLibraryButtonState(gameId, button);
+				}
+			}
+		}
+	}
+
 	public Node createGameItemNode(JsonObject game) throws IOException {
 
 		if (game == null) {
@@ -34,20 +76,69 @@ public class GameItemNodeFactory {
 			return new Label("Error: Invalid game data");
 		}
 
-		FXMLLoader loader = new FXMLLoader(getClass().getResource("/org/alexw/gamecurator/GameItem.fxml"));
-		Parent gameItemRoot = loader.load();
+		GameItemRow row = createRow();
+		bindRow(row, game);
+		return row.root;
+	}
+
+	GameItemRow createRow() {
+		ImageView gameImageView = new ImageView();
+		gameImageView.setFitWidth(120.0);
+		gameImageView.setFitHeight(80.0);
+		gameImageView.setPickOnBounds(true);
+		gameImageView.setPreserveRatio(true);
+
+		Label gameNameLabel = new Label("Game Name");
+		gameNameLabel.getStyleClass().add("game-name");
+		gameNameLabel.setFont(GAME_NAME_FONT);
+
+		Label gameReleaseLabel = new Label("Release Date");
+		gameReleaseLabel.getStyleClass().add("game-release");
+
+		Text gameDetailsText = new Text("Rating | Genres | Platforms");
+		gameDetailsText.getStyleClass().add("game-details");
+		gameDetailsText.setWrappingWidth(400.0);
+
+		VBox infoBox = new VBox(5.0, gameNameLabel, gameReleaseLabel, gameDetailsText);
+		HBox.setHgrow(infoBox, Priority.ALWAYS);
+
+		Button libraryButton = new Button("Add to Library");
+		libraryButton.setMnemonicParsing(false);
+		libraryButton.getStyleClass().add("library-button");
+		libraryButtons.add(libraryButton);
+
+		Button shareButton = new Button("Share");
+		shareButton.setMnemonicParsing(false);
+		shareButton.getStyleClass().add("share-button");
+		shareButton.setGraphic(IconFactory.createIcon("SHARE", IconFactory.BUTTON_ICON_SIZE));
+		shareButton.setContentDisplay(ContentDisplay.GRAPHIC_ONLY);
+		shareButton.setTooltip(new Tooltip("Share Game"));
+
+		VBox buttonBox = new VBox(5.0, libraryButton, shareButton);
+		buttonBox.setAlignment(Pos.CENTER);
+
+		HBox gameItemRoot = new HBox(15.0, gameImageView, infoBox, buttonBox);
+		gameItemRoot.setAlignment(Pos.CENTER_LEFT);
+		gameItemRoot.getStyleClass().add("game-item");
+		gameItemRoot.setPadding(new Insets(10.0));
+
+		return new GameItemRow(gameItemRoot, gameImageView, gameNameLabel, gameReleaseLabel,
+				gameDetailsText, libraryButton, shareButton);
+	}
 
-		ImageView gameImageView = (ImageView) loader.getNamespace().get("gameImageView");
-		Label gameNameLabel = (Label) loader.getNamespace().get("gameNameLabel");
-		Label gameReleaseLabel = (Label) loader.getNamespace().get("gameReleaseLabel");
-		Text gameDetailsText = (Text) loader.getNamespace().get("gameDetailsText");
-		Button libraryButton = (Button) loader.getNamespace().get("libraryButton");
-		Button shareButton = (Button) loader.getNamespace().get("shareButton");
+	void bindRow(GameItemRow row, JsonObject game) {
+		Parent gameItemRoot = row.root;
+		ImageView gameImageView = row.gameImageView;
+		Label gameNameLabel = row.gameNameLabel;
+		Label gameReleaseLabel = row.gameReleaseLabel;
+		Text gameDetailsText = row.gameDetailsText;
+		Button libraryButton = row.libraryButton;
+		Button shareButton = row.shareButton;
 
-		if (gameImageView == null || gameNameLabel == null || gameReleaseLabel == null ||
-				gameDetailsText == null || libraryButton == null || shareButton == null) {
-			System.err.println("Error: Could not find all expected elements in GameItem.fxml");
-			return gameItemRoot != null ? gameItemRoot : new Label("Error loading FXML components");
+		DeferredImage previousImage = DeferredImage.of(gameItemRoot);
+		if (previousImage != null) {
+			previousImage.cancel();
+			DeferredImage.uninstall(gameItemRoot);
 		}
 
 		gameNameLabel.setText(
@@ -96,14 +187,7 @@ public class GameItemNodeFactory {
 		if (game.has("background_image") && game.get("background_image").isJsonPrimitive()) {
 			String imageUrl = game.get("background_image").getAsString();
 			if (imageUrl != null && !imageUrl.isEmpty() && !imageUrl.equalsIgnoreCase("null")) {
-				Image gameImage = new Image(imageUrl, true);
-				gameImageView.setImage(gameImage);
-				gameImage.errorProperty().addListener((obs, oldVal, newVal) -> {
-					if (newVal) {
-						System.err.println("Failed to load image: " + imageUrl);
-						gameImageView.setImage(null);
-					}
-				});
+				DeferredImage.install(gameItemRoot, gameImageView, imageUrl);
 			} else {
 				gameImageView.setImage(null);
 			}
@@ -111,10 +195,6 @@ public class GameItemNodeFactory {
 			gameImageView.setImage(null);
 		}
 
-		shareButton.setGraphic(IconFactory.createIcon("SHARE", IconFactory.BUTTON_ICON_SIZE));
-		shareButton.setContentDisplay(ContentDisplay.GRAPHIC_ONLY);
-		shareButton.setTooltip(new Tooltip("Share Game"));
-
 		int gameId = -1;
 		if (game.has("id") && game.get("id").isJsonPrimitive()) {
 			try {
@@ -125,14 +205,14 @@ public class GameItemNodeFactory {
 			}
 		}
 
+		libraryButton.setUserData(gameId);
 		if (gameId != -1) {
+			libraryButton.setDisable(false);
+			shareButton.setDisable(false);
 			updateLibraryButtonState(gameId, libraryButton);
 
 			int finalGameId = gameId;
-			libraryButton.setOnAction(event -> {
-				mainController.handleLibraryToggle(finalGameId, game);
-				updateLibraryButtonState(finalGameId, libraryButton);
-			});
+			libraryButton.setOnAction(event -> mainController.handleLibraryToggle(finalGameId, game));
 			shareButton.setOnAction(event -> mainController.handleShareGame(game));
 		} else {
 			System.err.println("Warning: Game object missing or invalid 'id' field: " + game);
@@ -140,23 +220,42 @@ public class GameItemNodeFactory {
 			shareButton.setDisable(true);
 			libraryButton.setText("Error");
 			libraryButton.setGraphic(null);
+			libraryButton.setOnAction(null);
+			shareButton.setOnAction(null);
 		}
+	}
 
-		return gameItemRoot;
+	public void refreshLibraryButtons(Node root) {
+		for (Node node : root.lookupAll(".library-button")) {
+			if (node instanceof Button && node.getUserData() instanceof Integer) {
+				int gameId = (Integer) node.getUserData();
+				if (gameId != -1) {
+					updateLibraryButtonState(gameId, (Button) node);
+				}
+			}
+		}
 	}
 
 	public void updateLibraryButtonState(int gameId, Button button) {
 		if (button == null)
 			return; 
 		Platform.runLater(() -> { 
+			if (!Integer.valueOf(gameId).equals(button.getUserData())) {
+				return;
+			}
 			boolean inLibrary = libraryManager.isInLibrary(gameId);
 			String text = inLibrary ? "In Library" : "Add Library";
 			String iconName = inLibrary ? "REMOVE" : "ADD";
 
 			button.setText(text);
-			button.setGraphic(IconFactory.createIcon(iconName, IconFactory.BUTTON_ICON_SIZE));
+			button.setGraphic(IconFactory.getCachedIcon(button, iconName, IconFactory.BUTTON_ICON_SIZE));
 			button.setContentDisplay(ContentDisplay.LEFT);
-			button.setTooltip(new Tooltip(inLibrary ? "Remove from Library" : "Add to Library"));
+			String tooltipText = inLibrary ? "Remove from Library" : "Add to Library";
+			if (button.getTooltip() == null) {
+				button.setTooltip(new Tooltip(tooltipText));
+			} else {
+				button.getTooltip().setText(tooltipText);
+			}
 			button.getStyleClass().remove("in-library");
 			button.getStyleClass().remove("not-in-library");
 			if (inLibrary) {
@@ -166,4 +265,25 @@ public class GameItemNodeFactory {
 			}
 		});
 	}
-}
\ No newline at end of file
+
+	static class GameItemRow {
+		final Parent root;
+		final ImageView gameImageView;
+		final Label gameNameLabel;
+		final Label gameReleaseLabel;
+		final Text gameDetailsText;
+		final Button libraryButton;
+		final Button shareButton;
+
+		GameItemRow(Parent root, ImageView gameImageView, Label gameNameLabel, Label gameReleaseLabel,
+				Text gameDetailsText, Button libraryButton, Button shareButton) {
+			this.root = root;
+			this.gameImageView = gameImageView;
+			this.gameNameLabel = gameNameLabel;
+			this.gameReleaseLabel = gameReleaseLabel;
+			this.gameDetailsText = gameDetailsText;
+			this.libraryButton = libraryButton;
+			this.shareButton = shareButton;
+		}
+	}
+}
@@ -0,0 +1,43 @@
+package org.alexw.gamecurator.view;
+
+import com.google.gson.JsonObject;
+import javafx.scene.control.ListCell;
+
+class GameListCell extends ListCell<JsonObject> {
+
+    private final GameItemNodeFactory gameItemNodeFactory;
+    private GameItemNodeFactory.GameItemRow row;
+
+    GameListCell(GameItemNodeFactory gameItemNodeFactory) {
+        this.gameItemNodeFactory = gameItemNodeFactory;
+        getStyleClass().add("game-list-cell");
+    }
+
+    @Override
+    protected void updateItem(JsonObject game, boolean empty) {
+        super.updateItem(game, empty);
+
+        if (empty || game == null) {
+            if (row != null) {
+                DeferredImage deferredImage = DeferredImage.of(row.root);
+                if (deferredImage != null) {
+                    deferredImage.cancel();
+                }
+            }
+            setText(null);
+            setGraphic(null);
+            return;
+        }
+
+        if (row == null) {
+            row = gameItemNodeFactory.createRow();
+        }
+        gameItemNodeFactory.bindRow(row, game);
+        DeferredImage deferredImage = DeferredImage.of(row.root);
+        if (deferredImage != null) {
+            deferredImage.load();
+        }
+        setText(null);
+        setGraphic(row.root);
+    }
+}
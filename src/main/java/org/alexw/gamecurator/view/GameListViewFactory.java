@@ -5,21 +5,27 @@ import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import com.google.gson.JsonSyntaxException;
+import javafx.collections.FXCollections;
+import javafx.collections.transformation.FilteredList;
 import javafx.geometry.Insets;
 import javafx.scene.Node;
 import javafx.scene.Parent;
 import javafx.scene.control.Label;
+import javafx.scene.control.ListView;
 import javafx.scene.control.ScrollPane;
 import javafx.scene.layout.VBox;
 
 import java.io.IOException;
-import java.util.Collections;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
 
 public class GameListViewFactory {
 
+    private static final String FILTERABLE_LIST_KEY = "gamecurator.filterableList";
+
     private final GameItemNodeFactory gameItemNodeFactory;
 
     public static final Set<String> AVAILABLE_GENRES = Set.of(
@@ -32,7 +38,7 @@ public class GameListViewFactory {
         this.gameItemNodeFactory = gameItemNodeFactory;
     }
 
-    public Parent createGameListView(String jsonGameData, Set<String> selectedGenres, Integer minPlaytime, Integer maxPlaytime) {
+    public Parent createGameListView(String jsonGameData) {
         ScrollPane scrollPane = new ScrollPane();
         scrollPane.setFitToWidth(true);
         VBox gameListContainer = new VBox();
@@ -65,32 +71,47 @@ public class GameListViewFactory {
                 }
 
                 if (gamesArray != null) {
+                    List<JsonObject> games = new ArrayList<>();
                     for (JsonElement gameElement : gamesArray) {
                         if (gameElement.isJsonObject()) {
-                            JsonObject game = gameElement.getAsJsonObject();
-
-                            if (passesFilters(game, selectedGenres, minPlaytime, maxPlaytime)) {
-                                try {
-                                    Node gameItemNode = gameItemNodeFactory.createGameItemNode(game);
-                                    gameListContainer.getChildren().add(gameItemNode);
-                                    gamesAdded++;
-                                } catch (IOException e) {
-                                    System.err.println("Error creating game item node: " + e.getMessage());
-                                } catch (Exception e) {
-                                    System.err.println("Unexpected error creating game item node: " + e.getMessage());
-                                    e.printStackTrace();
-                                }
-                            }
-
+                            games.add(gameElement.getAsJsonObject());
                         } else {
                             System.err.println("Warning: Found non-object element in games array: " + gameElement);
                         }
                     }
 
-                    if (gamesAdded == 0 && gamesArray.size() > 0) {
-                         gameListContainer.getChildren().add(new Label("No games match the current filters."));
-                    } else if (gamesArray.isEmpty()) {
+                    if (VirtualizedGameList.shouldVirtualize(games.size())) {
+                        FilteredList<JsonObject> filteredGames = new FilteredList<>(FXCollections.observableArrayList(games));
+                        ListView<JsonObject> listView = VirtualizedGameList.create(filteredGames, gameItemNodeFactory);
+                        listView.setPlaceholder(new Label("No games match the current filters."));
+                        listView.getProperties().put(FILTERABLE_LIST_KEY, new FilterableList(games, null, filteredGames, null));
+                        return listView;
+                    }
+
+                    List<Node> rows = new ArrayList<>();
+                    for (JsonObject game : games) {
+                        Node gameItemNode = null;
+                        try {
+                            gameItemNode = gameItemNodeFactory.createGameItemNode(game);
+                            gameListContainer.getChildren().add(gameItemNode);
+                            gamesAdded++;
+                        } catch (IOException e) {
+                            System.err.println("Error creating game item node: " + e.getMessage());
+                        } catch (Exception e) {
+                            System.err.println("Unexpected error creating game item node: " + e.getMessage());
+                            e.printStackTrace();
+                        }
+                        rows.add(gameItemNode);
+                    }
+
+                    if (gamesArray.isEmpty()) {
                          gameListContainer.getChildren().add(new Label("No games found in the source data."));
+                    } else {
+                         Label noMatchLabel = new Label("No games match the current filters.");
+                         noMatchLabel.setVisible(false);
+                         noMatchLabel.setManaged(false);
+                         gameListContainer.getChildren().add(noMatchLabel);
+                         scrollPane.getProperties().put(FILTERABLE_LIST_KEY, new FilterableList(games, rows, null, noMatchLabel));
                     }
 
                 }
@@ -116,46 +137,69 @@ public class GameListViewFactory {
         }
 
         scrollPane.setContent(gameListContainer);
+        LazyImageLoader.attach(scrollPane, gameListContainer);
         return scrollPane;
     }
 
-    private boolean passesFilters(JsonObject game, Set<String> selectedGenres, Integer minPlaytime, Integer maxPlaytime) {
+    public boolean applyFilters(Parent gameListView, Set<String> selectedGenres, Integer minPlaytime, Integer maxPlaytime) {
+        Object value = gameListView.getProperties().get(FILTERABLE_LIST_KEY);
+        if (!(value instanceof FilterableList)) {
+            return false;
+        }
+        FilterableList filterableList = (FilterableList) value;
+        GameFilterIndex index = filterableList.index;
+        boolean genreFilterActive = selectedGenres != null && !selectedGenres.isEmpty();
+        boolean[] matches = filterableList.matches;
+        index.evaluate(index.genreMask(selectedGenres), genreFilterActive,
+                minPlaytime != null ? minPlaytime : GameFilterIndex.UNBOUNDED,
+                maxPlaytime != null ? maxPlaytime : GameFilterIndex.UNBOUNDED,
+                matches);
+
+        if (filterableList.filteredGames != null) {
+            Map<JsonObject, Integer> positions = filterableList.positions;
+            filterableList.filteredGames.setPredicate(game -> matches[positions.get(game)]);
+            return true;
+        }
 
-        if (selectedGenres != null && !selectedGenres.isEmpty()) {
-            if (!game.has("genres") || !game.get("genres").isJsonArray()) {
-                return false;
+        int visibleCount = 0;
+        for (int i = 0; i < matches.length; i++) {
+            Node row = filterableList.rows.get(i);
+            if (row == null) {
+                continue;
             }
-            JsonArray gameGenresArray = game.getAsJsonArray("genres");
-            Set<String> gameGenreNames = StreamSupport.stream(gameGenresArray.spliterator(), false)
-                    .filter(JsonElement::isJsonObject)
-                    .map(JsonElement::getAsJsonObject)
-                    .filter(g -> g.has("name") && g.get("name").isJsonPrimitive())
-                    .map(g -> g.get("name").getAsString())
-                    .collect(Collectors.toSet());
-
-            if (Collections.disjoint(gameGenreNames, selectedGenres)) {
-                 return false;
+            row.setVisible(matches[i]);
+            row.setManaged(matches[i]);
+            if (matches[i]) {
+                visibleCount++;
             }
         }
+        filterableList.noMatchLabel.setVisible(visibleCount == 0);
+        filterableList.noMatchLabel.setManaged(visibleCount == 0);
+        return true;
+    }
 
-        if (minPlaytime != null || maxPlaytime != null) {
-            if (!game.has("playtime") || !game.get("playtime").isJsonPrimitive() || !game.get("playtime").getAsJsonPrimitive().isNumber()) {
-
-                 if (!(minPlaytime != null && minPlaytime == 0 && game.has("playtime") && game.get("playtime").getAsInt() == 0)) {
-                    return false;
-                 }
-            }
-
-            int playtime = game.get("playtime").getAsInt();
-
-            if (minPlaytime != null && playtime < minPlaytime) {
-                return false;
-            }
-            if (maxPlaytime != null && playtime > maxPlaytime) {
-                return false;
+    private static class FilterableList {
+        final GameFilterIndex index;
+        final boolean[] matches;
+        final List<Node> rows;
+        final FilteredList<JsonObject> filteredGames;
+        final Map<JsonObject, Integer> positions;
+        final Label noMatchLabel;
+
+        FilterableList(List<JsonObject> games, List<Node> rows, FilteredList<JsonObject> filteredGames, Label noMatchLabel) {
+            this.index = GameFilterIndex.build(games);
+            this.matches = new boolean[games.size()];
+            this.rows = rows;
+            this.filteredGames = filteredGames;
+            this.noMatchLabel = noMatchLabel;
+            if (filteredGames != null) {
+                positions = new IdentityHashMap<>(games.size() * 2);
+                for (int i = 0; i < games.size(); i++) {
+                    positions.put(games.get(i), i);
+                }
+            } else {
+                positions = null;
             }
         }
-
-        return true;
     }
-}
\ No newline at end of file
+}
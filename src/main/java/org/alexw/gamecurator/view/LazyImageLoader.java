@@ -0,0 +1,99 @@
+package org.alexw.gamecurator.view;
+
+import javafx.application.Platform;
+import javafx.collections.ListChangeListener;
+import javafx.geometry.Bounds;
+import javafx.scene.Node;
+import javafx.scene.control.ScrollPane;
+import javafx.scene.layout.Pane;
+
+public class LazyImageLoader {
+
+    private static final double PRELOAD_MARGIN = 400.0;
+
+    private final ScrollPane scrollPane;
+    private final Pane container;
+    private boolean updateScheduled;
+
+    private LazyImageLoader(ScrollPane scrollPane, Pane container) {
+        this.scrollPane = scrollPane;
+        this.container = container;
+    }
+
+    public static LazyImageLoader attach(ScrollPane scrollPane, Pane container) {
+        LazyImageLoader loader = new LazyImageLoader(scrollPane, container);
+        scrollPane.vvalueProperty().addListener((obs, oldVal, newVal) -> loader.requestUpdate());
+        scrollPane.viewportBoundsProperty().addListener((obs, oldVal, newVal) -> loader.requestUpdate());
+        container.heightProperty().addListener((obs, oldVal, newVal) -> loader.requestUpdate());
+        container.getChildren().addListener((ListChangeListener<Node>) change -> {
+            while (change.next()) {
+                for (Node removed : change.getRemoved()) {
+                    DeferredImage deferredImage = DeferredImage.of(removed);
+                    if (deferredImage != null) {
+                        deferredImage.cancel();
+                    }
+                }
+            }
+            loader.requestUpdate();
+        });
+        scrollPane.sceneProperty().addListener((obs, oldScene, newScene) -> {
+            if (newScene == null) {
+                loader.cancelAll();
+            } else {
+                loader.requestUpdate();
+            }
+        });
+        loader.requestUpdate();
+        return loader;
+    }
+
+    public void requestUpdate() {
+        if (updateScheduled) {
+            return;
+        }
+        updateScheduled = true;
+        Platform.runLater(() -> {
+            updateScheduled = false;
+            update();
+        });
+    }
+
+    private void update() {
+        if (scrollPane.getScene() == null) {
+            return;
+        }
+        Bounds viewport = scrollPane.getViewportBounds();
+        double contentHeight = container.getHeight();
+        double scrollRange = scrollPane.getVmax() - scrollPane.getVmin();
+        double scrollFraction = scrollRange > 0 ? (scrollPane.getVvalue() - scrollPane.getVmin()) / scrollRange : 0;
+        double offsetY = Math.max(0, contentHeight - viewport.getHeight()) * scrollFraction;
+        double top = offsetY - PRELOAD_MARGIN;
+        double bottom = offsetY + viewport.getHeight() + PRELOAD_MARGIN;
+
+        for (Node child : container.getChildren()) {
+            DeferredImage deferredImage = DeferredImage.of(child);
+            if (deferredImage == null) {
+                continue;
+            }
+            Bounds bounds = child.getBoundsInParent();
+            if (bounds.getHeight() <= 0) {
+                continue;
+            }
+            boolean nearViewport = child.isVisible() && bounds.getMaxY() >= top && bounds.getMinY() <= bottom;
+            if (nearViewport) {
+                deferredImage.load();
+            } else {
+                deferredImage.cancel();
+            }
+        }
+    }
+
+    public void cancelAll() {
+        for (Node child : container.getChildren()) {
+            DeferredImage deferredImage = DeferredImage.of(child);
+            if (deferredImage != null) {
+                deferredImage.cancel();
+            }
+        }
+    }
+}
@@ -4,6 +4,8 @@ import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import com.google.gson.JsonSyntaxException;
 import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
 import javafx.concurrent.Task;
 import javafx.geometry.Insets;
 import javafx.scene.Node;
@@ -11,26 +13,37 @@ import javafx.scene.Parent;
 import javafx.scene.control.Label;
 import javafx.scene.control.ProgressIndicator;
 import javafx.scene.control.ScrollPane;
+import javafx.scene.layout.StackPane;
 import javafx.scene.layout.VBox;
 import org.alexw.gamecurator.LibraryManager;
 import org.alexw.gamecurator.misc.CacheManager;
+import org.alexw.gamecurator.util.ViewTaskExecutor;
 
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
-import java.util.concurrent.CountDownLatch;
+import java.util.stream.Collectors;
 
 public class LibraryViewFactory implements ViewFactory {
 
+    private static final String LOAD_TOKEN_KEY = "gamecurator.libraryLoadToken";
+    private static final String LIBRARY_LOAD_SLOT = "library";
+    private static final int FIRST_BATCH_SIZE = 12;
+    private static final int BATCH_SIZE = 30;
+    private static final int MAX_IN_PLACE_ADDITIONS = 50;
+
     private final LibraryManager libraryManager;
     private final GameItemNodeFactory gameItemNodeFactory;
+    private LibraryView currentView;
 
     public LibraryViewFactory(LibraryManager libraryManager, GameItemNodeFactory gameItemNodeFactory) {
         this.libraryManager = libraryManager;
         this.gameItemNodeFactory = gameItemNodeFactory;
+        libraryManager.addChangeListener(changes -> Platform.runLater(() -> applyChanges(currentView, changes)));
     }
 
     @Override
@@ -42,13 +55,23 @@ public class LibraryViewFactory implements ViewFactory {
         libraryContainer.getStyleClass().add("game-list-container");
         libraryContainer.setId("libraryItemsContainer");
 
-        loadLibraryItems(libraryContainer);
-
         scrollPane.setContent(libraryContainer);
-        return scrollPane;
+        LazyImageLoader.attach(scrollPane, libraryContainer);
+
+        StackPane libraryRoot = new StackPane(scrollPane);
+        LibraryView view = new LibraryView(libraryRoot, scrollPane, libraryContainer);
+        currentView = view;
+        loadLibraryItems(view);
+        return libraryRoot;
     }
 
-    public void loadLibraryItems(VBox libraryContainer) {
+    private void loadLibraryItems(LibraryView view) {
+        StackPane libraryRoot = view.root;
+        VBox libraryContainer = view.container;
+        view.games = null;
+        view.virtualItems = null;
+        view.complete = false;
+        libraryRoot.getChildren().setAll(view.scrollPane);
         libraryContainer.getChildren().clear();
         Set<Integer> libraryItemIds = libraryManager.getLibraryItemIds();
 
@@ -61,90 +84,49 @@ public class LibraryViewFactory implements ViewFactory {
         loadingIndicator.setMaxSize(40, 40);
         libraryContainer.getChildren().add(loadingIndicator);
 
-        Task<List<Node>> loadLibraryTask = new Task<>() {
-            @Override
-            protected List<Node> call() throws Exception {
-                List<JsonObject> gameDataList = new ArrayList<>();
-                List<String> errorMessages = new ArrayList<>();
-
-                for (int gameId : libraryItemIds) {
-                    String cachedGameJson = CacheManager.get("gameData_" + gameId);
-                    if (cachedGameJson != null) {
-                        try {
-                            JsonObject game = JsonParser.parseString(cachedGameJson).getAsJsonObject();
-
-                            if (!game.has("id")) {
-                                game.addProperty("id", gameId);
-                            }
-                            gameDataList.add(game);
-                        } catch (JsonSyntaxException | IllegalStateException e) {
-                            System.err.println("Error parsing cached library game " + gameId + ": " + e.getMessage());
-                            errorMessages.add("Error loading game ID: " + gameId + " (invalid data)");
-                            CacheManager.remove("gameData_" + gameId); 
-                        }
-                    } else {
-                        System.out.println("Data for game ID: " + gameId + " not found in cache. Cannot display.");
-
-                    }
-                }
+        Object loadToken = new Object();
+        libraryContainer.getProperties().put(LOAD_TOKEN_KEY, loadToken);
 
-                Collections.sort(gameDataList, Comparator.comparing(
-                    game -> (game.has("name") && game.get("name").isJsonPrimitive()) ? game.get("name").getAsString().toLowerCase() : "zzz" 
-                ));
-
-                List<Node> gameNodes = new ArrayList<>();
-                CountDownLatch latch = new CountDownLatch(1);
-                Platform.runLater(() -> {
-                    try {
-                        for (JsonObject game : gameDataList) {
-                            try {
-                                gameNodes.add(gameItemNodeFactory.createGameItemNode(game));
-                            } catch (IOException e) {
-                                System.err.println("Error creating node for library game: " + e.getMessage());
-                                gameNodes.add(new Label("Error displaying game: " + getGameIdentifier(game)));
-                            } catch (Exception e) {
-                                 System.err.println("Unexpected error creating node for library game: " + e.getMessage());
-                                 e.printStackTrace();
-                                 gameNodes.add(new Label("Error displaying game: " + getGameIdentifier(game)));
-                            }
-                        }
-
-                        for(String error : errorMessages) {
-                            Label errorLabel = new Label(error);
-                            errorLabel.setStyle("-fx-text-fill: orange;");
-                            gameNodes.add(errorLabel);
-                        }
-                    } finally {
-                        latch.countDown();
-                    }
-                });
-                latch.await(); 
-                return gameNodes;
-            }
-
-            private String getGameIdentifier(JsonObject game) {
-                 if (game == null) return "Unknown";
-                 if (game.has("name") && game.get("name").isJsonPrimitive()) return game.get("name").getAsString();
-                 if (game.has("id") && game.get("id").isJsonPrimitive()) return "ID: " + game.get("id").getAsString();
-                 return "Unknown Game";
+        List<String> errorMessages = Collections.synchronizedList(new ArrayList<>());
+        Task<List<JsonObject>> loadLibraryTask = new Task<>() {
+            @Override
+            protected List<JsonObject> call() throws Exception {
+                List<JsonObject> gameDataList = libraryItemIds.parallelStream()
+                        .map(gameId -> parseCachedGame(gameId, errorMessages))
+                        .filter(Objects::nonNull)
+                        .sorted(Comparator.comparing(LibraryViewFactory::sortKey))
+                        .collect(Collectors.toList());
+                errorMessages.sort(null);
+                return gameDataList;
             }
         };
 
         loadLibraryTask.setOnSucceeded(event -> {
-            libraryContainer.getChildren().clear(); 
-            List<Node> nodes = loadLibraryTask.getValue();
-            if (nodes.isEmpty() && !libraryItemIds.isEmpty()){
-
+            if (libraryContainer.getProperties().get(LOAD_TOKEN_KEY) != loadToken) {
+                return;
+            }
+            List<JsonObject> gameDataList = loadLibraryTask.getValue();
+            if (gameDataList.isEmpty() && errorMessages.isEmpty()) {
+                libraryContainer.getChildren().clear();
                 libraryContainer.getChildren().add(new Label("Could not load library items. Cache might be empty or data invalid."));
-            } else if (nodes.isEmpty() && libraryItemIds.isEmpty()) {
+                return;
+            }
+            view.games = new ArrayList<>(gameDataList);
 
-                 libraryContainer.getChildren().add(new Label("You have no games in your library yet."));
-            } else {
-                libraryContainer.getChildren().addAll(nodes);
+            if (VirtualizedGameList.shouldVirtualize(gameDataList.size())) {
+                view.virtualItems = FXCollections.observableArrayList(gameDataList);
+                libraryRoot.getChildren().setAll(VirtualizedGameList.create(view.virtualItems, gameItemNodeFactory));
+                view.complete = true;
+                return;
             }
+
+            attachBatch(view, loadToken, errorMessages, 0, FIRST_BATCH_SIZE);
         });
 
         loadLibraryTask.setOnFailed(event -> {
+            if (libraryContainer.getProperties().get(LOAD_TOKEN_KEY) != loadToken) {
+                return;
+            }
             libraryContainer.getChildren().clear(); 
             Throwable ex = loadLibraryTask.getException();
             ex.printStackTrace();
@@ -153,6 +135,155 @@ public class LibraryViewFactory implements ViewFactory {
             libraryContainer.getChildren().add(errorLabel);
         });
 
-        new Thread(loadLibraryTask).start();
+        ViewTaskExecutor.submit(LIBRARY_LOAD_SLOT, loadLibraryTask);
+    }
+
+    private JsonObject parseCachedGame(int gameId, List<String> errorMessages) {
+        String cachedGameJson = CacheManager.get("gameData_" + gameId);
+        if (cachedGameJson == null) {
+            System.out.println("Data for game ID: " + gameId + " not found in cache. Cannot display.");
+            return null;
+        }
+        try {
+            JsonObject game = JsonParser.parseString(cachedGameJson).getAsJsonObject();
+
+            if (!game.has("id")) {
+                game.addProperty("id", gameId);
+            }
+            return game;
+        } catch (JsonSyntaxException | IllegalStateException e) {
+            System.err.println("Error parsing cached library game " + gameId + ": " + e.getMessage());
+            errorMessages.add("Error loading game ID: " + gameId + " (invalid data)");
+            CacheManager.remove("gameData_" + gameId);
+            return null;
+        }
+    }
+
+    private void attachBatch(LibraryView view, Object loadToken, List<String> errorMessages, int start, int batchSize) {
+        VBox libraryContainer = view.container;
+        List<JsonObject> gameDataList = view.games;
+        if (libraryContainer.getProperties().get(LOAD_TOKEN_KEY) != loadToken) {
+            return;
+        }
+        if (start == 0) {
+            libraryContainer.getChildren().clear();
+        }
+
+        int end = Math.min(start + batchSize, gameDataList.size());
+        List<Node> gameNodes = new ArrayList<>(end - start);
+        for (JsonObject game : gameDataList.subList(start, end)) {
+            gameNodes.add(createLibraryNode(game));
+        }
+
+        if (end >= gameDataList.size()) {
+            for (String error : errorMessages) {
+                Label errorLabel = new Label(error);
+                errorLabel.setStyle("-fx-text-fill: orange;");
+                gameNodes.add(errorLabel);
+            }
+            libraryContainer.getChildren().addAll(gameNodes);
+            view.complete = true;
+            return;
+        }
+
+        libraryContainer.getChildren().addAll(gameNodes);
+        Platform.runLater(() -> attachBatch(view, loadToken, errorMessages, end, BATCH_SIZE));
+    }
+
+    private Node createLibraryNode(JsonObject game) {
+        try {
+            return gameItemNodeFactory.createGameItemNode(game);
+        } catch (IOException e) {
+            System.err.println("Error creating node for library game: " + e.getMessage());
+            return new Label("Error displaying game: " + getGameIdentifier(game));
+        } catch (Exception e) {
+             System.err.println("Unexpected error creating node for library game: " + e.getMessage());
+             e.printStackTrace();
+             return new Label("Error displaying game: " + getGameIdentifier(game));
+        }
+    }
+
+    private void applyChanges(LibraryView view, LibraryManager.Changes changes) {
+        if (view == null || changes.isEmpty()) {
+            return;
+        }
+        if (!view.complete || view.games.isEmpty() || changes.getAddedIds().size() > MAX_IN_PLACE_ADDITIONS) {
+            loadLibraryItems(view);
+            return;
+        }
+
+        changes.getRemovedIds().forEach(gameId -> removeGame(view, gameId));
+        changes.getAddedIds().forEach(gameId -> insertGame(view, gameId));
+
+        if (view.games.isEmpty()) {
+            loadLibraryItems(view);
+        }
+    }
+
+    private void removeGame(LibraryView view, int gameId) {
+        for (int i = 0; i < view.games.size(); i++) {
+            if (gameIdOf(view.games.get(i)) == gameId) {
+                view.games.remove(i);
+                if (view.virtualItems != null) {
+                    view.virtualItems.remove(i);
+                } else {
+                    view.container.getChildren().remove(i);
+                }
+                return;
+            }
+        }
+    }
+
+    private void insertGame(LibraryView view, int gameId) {
+        List<String> errorMessages = new ArrayList<>();
+        JsonObject game = parseCachedGame(gameId, errorMessages);
+        if (game == null) {
+            return;
+        }
+        String key = sortKey(game);
+        int position = 0;
+        while (position < view.games.size() && sortKey(view.games.get(position)).compareTo(key) <= 0) {
+            position++;
+        }
+        view.games.add(position, game);
+        if (view.virtualItems != null) {
+            view.virtualItems.add(position, game);
+        } else {
+            view.container.getChildren().add(position, createLibraryNode(game));
+        }
+    }
+
+    private static String sortKey(JsonObject game) {
+        return (game.has("name") && game.get("name").isJsonPrimitive()) ? game.get("name").getAsString().toLowerCase() : "zzz";
+    }
+
+    private static int gameIdOf(JsonObject game) {
+        try {
+            return (game.has("id") && game.get("id").isJsonPrimitive()) ? game.get("id").getAsInt() : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private String getGameIdentifier(JsonObject game) {
+         if (game == null) return "Unknown";
+         if (game.has("name") && game.get("name").isJsonPrimitive()) return game.get("name").getAsString();
+         if (game.has("id") && game.get("id").isJsonPrimitive()) return "ID: " + game.get("id").getAsString();
+         return "Unknown Game";
+    }
+
+    private static class LibraryView {
+        final StackPane root;
+        final ScrollPane scrollPane;
+        final VBox container;
+        List<JsonObject> games;
+        ObservableList<JsonObject> virtualItems;
+        boolean complete;
+
+        LibraryView(StackPane root, ScrollPane scrollPane, VBox container) {
+            this.root = root;
+            this.scrollPane = scrollPane;
+            this.container = container;
+        }
     }
-}
\ No newline at end of file
+}
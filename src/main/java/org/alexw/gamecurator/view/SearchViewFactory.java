@@ -39,6 +39,7 @@ public class SearchViewFactory implements ViewFactory {
         resultsContainer.setPadding(new Insets(5));
         resultsContainer.setId("gameItemContainer");
         scrollPane.setContent(resultsContainer);
+        LazyImageLoader.attach(scrollPane, resultsContainer);
         VBox.setVgrow(scrollPane, Priority.ALWAYS);
 
         Button searchButton = new Button("Search");
@@ -1,6 +1,7 @@
 package org.alexw.gamecurator.view;
 
 import javafx.application.Platform;
+import javafx.concurrent.Task;
 import javafx.event.ActionEvent;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
@@ -8,14 +9,27 @@ import javafx.scene.Node;
 import javafx.scene.Parent;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
+import javafx.stage.FileChooser;
+import org.alexw.gamecurator.LibraryImporter;
 import org.alexw.gamecurator.LibraryManager;
 import org.alexw.gamecurator.MainController;
+import org.alexw.gamecurator.ai.PromptBuilder;
 import org.alexw.gamecurator.misc.CacheManager;
+import org.alexw.gamecurator.misc.ImageService;
 import org.alexw.gamecurator.misc.SettingsManager;
 import org.alexw.gamecurator.util.DialogUtils;
+import org.alexw.gamecurator.util.FutureUtils;
 import org.alexw.gamecurator.util.IconFactory;
-
+import org.alexw.gamecurator.util.ViewTaskExecutor;
+
+import java.io.File;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.prefs.BackingStoreException;
 import java.util.prefs.Preferences;
 
@@ -26,6 +40,9 @@ public class SettingsViewFactory implements ViewFactory {
     private final MainController mainController;
 
     private static final String PREF_AI_RECOMMENDATIONS = "aiRecommendationsEnabled";
+    private static final String LIBRARY_EXPORT_SLOT = "library-export";
+    private static final String LIBRARY_IMPORT_SLOT = "library-import";
+    private static final String TITLE_IMPORT_SLOT = "title-import";
 
     private TextField llmApiKeyField;
     private TextField rawgApiKeyField;
@@ -56,11 +73,60 @@ public class SettingsViewFactory implements ViewFactory {
         });
         settingsPane.getChildren().add(createSettingArea("AUTO_FIX", aiRecommendCheckBox, "Enable Recommendations", "Allow AI to generate game recommendations based on your library. Requires cached game data and a configured LLM API Key."));
 
+        Spinner<Integer> tokenBudgetSpinner = new Spinner<>(PromptBuilder.MIN_TOKEN_BUDGET, 100_000, SettingsManager.getPromptTokenBudget(), 500);
+        tokenBudgetSpinner.setEditable(true);
+        tokenBudgetSpinner.setPrefWidth(110);
+        tokenBudgetSpinner.valueProperty().addListener((obs, oldValue, newValue) -> {
+            if (newValue != null) {
+                SettingsManager.setPromptTokenBudget(newValue);
+                System.out.println("Prompt token budget changed to: " + newValue);
+            }
+        });
+        settingsPane.getChildren().add(createSettingArea("AUTO_FIX", tokenBudgetSpinner, "Prompt Token Budget", "Approximate number of tokens of library data sent with each recommendation request. Larger libraries are listed up to this budget and summarized beyond it."));
+
+        CheckBox shardedCheckBox = new CheckBox();
+        shardedCheckBox.setSelected(SettingsManager.isShardedRecommendationsEnabled());
+        shardedCheckBox.setOnAction(e -> {
+            SettingsManager.setShardedRecommendationsEnabled(shardedCheckBox.isSelected());
+            System.out.println("Sharded recommendations setting changed to: " + shardedCheckBox.isSelected());
+        });
+        settingsPane.getChildren().add(createSettingArea("AUTO_FIX", shardedCheckBox, "Sharded Recommendations", "When your library exceeds the token budget, split it into parts, ask for recommendations on each part in parallel and merge the results."));
+
+        Spinner<Integer> parallelismSpinner = new Spinner<>(1, 8, SettingsManager.getRecommendationParallelism());
+        parallelismSpinner.setPrefWidth(110);
+        parallelismSpinner.valueProperty().addListener((obs, oldValue, newValue) -> {
+            if (newValue != null) {
+                SettingsManager.setRecommendationParallelism(newValue);
+            }
+        });
+        settingsPane.getChildren().add(createSettingArea("AUTO_FIX", parallelismSpinner, "Parallel Requests", "Maximum number of library parts sent to the AI at the same time in sharded mode."));
+
+        Spinner<Integer> shardTimeoutSpinner = new Spinner<>(10, 300, SettingsManager.getRecommendationShardTimeoutSeconds(), 10);
+        shardTimeoutSpinner.setPrefWidth(110);
+        shardTimeoutSpinner.valueProperty().addListener((obs, oldValue, newValue) -> {
+            if (newValue != null) {
+                SettingsManager.setRecommendationShardTimeoutSeconds(newValue);
+            }
+        });
+        settingsPane.getChildren().add(createSettingArea("AUTO_FIX", shardTimeoutSpinner, "Part Timeout (seconds)", "Parts that take longer than this are skipped and the remaining results are merged."));
+
         settingsPane.getChildren().add(createSettingHeader("Data Management"));
         Button clearCacheButton = new Button("Clear Cache");
         clearCacheButton.setOnAction(this::handleClearCache);
         settingsPane.getChildren().add(createSettingArea("DELETE", clearCacheButton, "Clear Cache", "Delete cached API data, images, and AI recommendations. Your library list and settings (including API keys) are kept."));
 
+        Button exportLibraryButton = new Button("Export Library");
+        exportLibraryButton.setOnAction(this::handleExportLibrary);
+        settingsPane.getChildren().add(createSettingArea("EXPORT", exportLibraryButton, "Export Library", "Save your library, including cached game details, to a JSON Lines file that can be imported on another machine."));
+
+        Button importLibraryButton = new Button("Import Library");
+        importLibraryButton.setOnAction(this::handleImportLibrary);
+        settingsPane.getChildren().add(createSettingArea("IMPORT", importLibraryButton, "Import Library", "Add every game from a JSON Lines library file in a single batch. Games already in your library are kept."));
+
+        Button importTitlesButton = new Button("Import Titles");
+        importTitlesButton.setOnAction(this::handleImportTitles);
+        settingsPane.getChildren().add(createSettingArea("PLAYLIST_ADD", importTitlesButton, "Import Game Titles", "Look up a plain text list of game titles (one per line) on RAWG and add the closest matches to your library."));
+
         Button resetButton = new Button("Reset App");
         resetButton.setStyle("-fx-text-fill: red;");
         resetButton.setOnAction(this::handleResetApp);
@@ -168,11 +234,118 @@ public class SettingsViewFactory implements ViewFactory {
         if (result.isPresent() && result.get() == ButtonType.OK) {
             System.out.println("Clearing cache...");
             CacheManager.clear();
+            ImageService.clearDiskCache();
+            mainController.invalidateAllPages();
             DialogUtils.showInfoDialog("Cache Cleared", "Application cache has been cleared.");
 			mainController.refreshCurrentPageIf("assistant");
         }
     }
 
+    private FileChooser createLibraryFileChooser(String title) {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle(title);
+        fileChooser.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter("JSON Lines", "*.jsonl"),
+                new FileChooser.ExtensionFilter("All Files", "*.*"));
+        return fileChooser;
+    }
+
+    private void handleExportLibrary(ActionEvent event) {
+        FileChooser fileChooser = createLibraryFileChooser("Export Library");
+        fileChooser.setInitialFileName("gamecurator-library.jsonl");
+        File file = fileChooser.showSaveDialog(((Node) event.getSource()).getScene().getWindow());
+        if (file == null) {
+            return;
+        }
+
+        Task<Integer> exportTask = new Task<>() {
+            @Override
+            protected Integer call() throws Exception {
+                try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+                    return libraryManager.exportLibrary(writer);
+                }
+            }
+        };
+        exportTask.setOnSucceeded(e -> DialogUtils.showInfoDialog("Library Exported",
+                exportTask.getValue() + " games were exported to " + file.getName() + "."));
+        exportTask.setOnFailed(e -> {
+            System.err.println("Error exporting library: " + exportTask.getException().getMessage());
+            DialogUtils.showErrorDialog("Export Error", "Could not export library: " + exportTask.getException().getMessage());
+        });
+        ViewTaskExecutor.submit(LIBRARY_EXPORT_SLOT, exportTask);
+    }
+
+    private void handleImportLibrary(ActionEvent event) {
+        File file = createLibraryFileChooser("Import Library").showOpenDialog(((Node) event.getSource()).getScene().getWindow());
+        if (file == null) {
+            return;
+        }
+
+        Task<LibraryManager.Changes> importTask = new Task<>() {
+            @Override
+            protected LibraryManager.Changes call() throws Exception {
+                try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+                    return libraryManager.importLibrary(reader);
+                }
+            }
+        };
+        importTask.setOnSucceeded(e -> {
+            DialogUtils.showInfoDialog("Library Imported",
+                    importTask.getValue().getAddedIds().size() + " new games were added to your library.");
+        });
+        importTask.setOnFailed(e -> {
+            System.err.println("Error importing library: " + importTask.getException().getMessage());
+            DialogUtils.showErrorDialog("Import Error", "Could not import library: " + importTask.getException().getMessage());
+        });
+        ViewTaskExecutor.submit(LIBRARY_IMPORT_SLOT, importTask);
+    }
+
+    private void handleImportTitles(ActionEvent event) {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Import Game Titles");
+        fileChooser.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter("Text Files", "*.txt"),
+                new FileChooser.ExtensionFilter("All Files", "*.*"));
+        File file = fileChooser.showOpenDialog(((Node) event.getSource()).getScene().getWindow());
+        if (file == null) {
+            return;
+        }
+
+        // The task only reads the file and starts the import, so the lookups do not hold a view-load thread.
+        Task<CompletableFuture<LibraryImporter.Result>> startTask = new Task<>() {
+            @Override
+            protected CompletableFuture<LibraryImporter.Result> call() throws Exception {
+                List<String> titles;
+                try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+                    titles = LibraryImporter.readTitles(reader);
+                }
+                return new LibraryImporter(libraryManager).importTitles(titles);
+            }
+        };
+        startTask.setOnSucceeded(e -> startTask.getValue().whenCompleteAsync((result, error) -> {
+            if (error != null) {
+                String message = FutureUtils.unwrap(error).getMessage();
+                System.err.println("Error importing titles: " + message);
+                DialogUtils.showErrorDialog("Import Error", "Could not import titles: " + message);
+                return;
+            }
+            StringBuilder message = new StringBuilder(result.describe()).append(".");
+            if (!result.getUnmatchedTitles().isEmpty()) {
+                message.append("\n\nNo match found for: ")
+                        .append(String.join(", ", result.getUnmatchedTitles().subList(0, Math.min(10, result.getUnmatchedTitles().size()))));
+                if (result.getUnmatchedTitles().size() > 10) {
+                    message.append(" and ").append(result.getUnmatchedTitles().size() - 10).append(" more");
+                }
+            }
+            DialogUtils.showInfoDialog("Titles Imported", message.toString());
+        }, Platform::runLater));
+        startTask.setOnFailed(e -> {
+            System.err.println("Error importing titles: " + startTask.getException().getMessage());
+            DialogUtils.showErrorDialog("Import Error", "Could not import titles: " + startTask.getException().getMessage());
+        });
+        ViewTaskExecutor.submit(TITLE_IMPORT_SLOT, startTask);
+    }
+
     private void handleResetApp(ActionEvent event) {
         Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
         alert.setTitle("Reset Application");
@@ -196,6 +369,8 @@ public class SettingsViewFactory implements ViewFactory {
                 libraryManager.clearLibrary();
 
                 CacheManager.clear();
+                ImageService.clearDiskCache();
+                mainController.invalidateAllPages();
 
                 Platform.runLater(() -> {
                     mainController.switchPage("settings"); 
@@ -0,0 +1,22 @@
+package org.alexw.gamecurator.view;
+
+import com.google.gson.JsonObject;
+import javafx.collections.ObservableList;
+import javafx.scene.control.ListView;
+
+public class VirtualizedGameList {
+
+    public static final int VIRTUALIZATION_THRESHOLD = 200;
+
+    public static boolean shouldVirtualize(int itemCount) {
+        return itemCount > VIRTUALIZATION_THRESHOLD;
+    }
+
+    public static ListView<JsonObject> create(ObservableList<JsonObject> games, GameItemNodeFactory gameItemNodeFactory) {
+        ListView<JsonObject> listView = new ListView<>(games);
+        listView.setCellFactory(view -> new GameListCell(gameItemNodeFactory));
+        listView.getStyleClass().addAll("game-list-container", "virtualized-game-list");
+        listView.setFocusTraversable(false);
+        return listView;
+    }
+}
@@ -0,0 +1,113 @@
+package org.alexw.gamecurator;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import org.alexw.gamecurator.misc.LibraryStore;
+import org.alexw.gamecurator.misc.TitleMatcher;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.StringReader;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.prefs.Preferences;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class LibraryImporterTest {
+
+    private static final Map<String, String> SEARCH_RESULTS = Map.of(
+            "Portal II", "[{\"id\":2,\"name\":\"Portal 2\"},{\"id\":1,\"name\":\"Portal\"}]",
+            "hades", "{\"results\":[{\"id\":3,\"name\":\"Hades\"}]}",
+            "Celeste", "[{\"id\":4,\"name\":\"Stardew Valley\"}]");
+
+    @Mock
+    private Preferences mockPrefs;
+
+    @TempDir
+    Path tempDir;
+
+    private LibraryStore store;
+    private LibraryManager libraryManager;
+
+    @BeforeEach
+    void setUp() {
+        store = new LibraryStore(tempDir.resolve("library.db"));
+        libraryManager = new LibraryManager(mockPrefs, new Gson(), store);
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.close();
+    }
+
+    @Test
+    void readTitles_skipsBlankLinesAndComments() throws Exception {
+        List<String> titles = LibraryImporter.readTitles(new StringReader("# my games\n  Hades \n\nCeleste\n"));
+
+        assertEquals(List.of("Hades", "Celeste"), titles);
+    }
+
+    @Test
+    void importTitles_addsMatchesInOneBatchAndReportsStats() throws Exception {
+        AtomicInteger lookups = new AtomicInteger();
+        LibraryImporter importer = new LibraryImporter(libraryManager, new TitleMatcher(), (title, pendingWrites) -> {
+            lookups.incrementAndGet();
+            return CompletableFuture.supplyAsync(() -> SEARCH_RESULTS.getOrDefault(title, "[]"));
+        }, 2);
+        List<LibraryManager.Changes> events = new ArrayList<>();
+        libraryManager.addChangeListener(events::add);
+
+        LibraryImporter.Result result = importer.importTitles(List.of("Portal II", "hades", "HADES", "Celeste")).get();
+
+        assertEquals(3, lookups.get());
+        assertEquals(4, result.getTotalTitles());
+        assertEquals(3, result.getUniqueTitles());
+        assertEquals(2, result.getMatchedCount());
+        assertEquals(List.of("Celeste"), result.getUnmatchedTitles());
+        assertEquals(1, events.size());
+        assertTrue(libraryManager.getLibrarySnapshot().contains(2));
+        assertTrue(libraryManager.getLibrarySnapshot().contains(3));
+        assertFalse(libraryManager.getLibrarySnapshot().contains(1));
+    }
+
+    @Test
+    void importTitles_failedLookupsAreCountedAndSkipped() throws Exception {
+        libraryManager.addAll(Map.of(3, new JsonObject()));
+        LibraryImporter importer = new LibraryImporter(libraryManager, new TitleMatcher(), (title, pendingWrites) -> "broken".equals(title)
+                ? CompletableFuture.failedFuture(new RuntimeException("HTTP 500"))
+                : CompletableFuture.completedFuture(SEARCH_RESULTS.get(title)), 4);
+
+        LibraryImporter.Result result = importer.importTitles(List.of("broken", "hades")).get();
+
+        assertEquals(1, result.getFailedCount());
+        assertEquals(1, result.getMatchedCount());
+        assertEquals(1, result.getAlreadyInLibraryCount());
+    }
+
+    @Test
+    void importTitles_thousandsOfCachedLookups_completes() throws Exception {
+        List<String> titles = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            titles.add("Missing Game " + i);
+        }
+        LibraryImporter importer = new LibraryImporter(libraryManager, new TitleMatcher(),
+                (title, pendingWrites) -> CompletableFuture.completedFuture("[]"), 4);
+
+        LibraryImporter.Result result = importer.importTitles(titles).get(30, TimeUnit.SECONDS);
+
+        assertEquals(20_000, result.getUnmatchedTitles().size());
+        assertEquals(0, result.getFailedCount());
+    }
+}
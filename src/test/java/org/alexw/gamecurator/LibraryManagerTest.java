@@ -2,16 +2,25 @@ package org.alexw.gamecurator;
 
 import com.google.gson.Gson;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.alexw.gamecurator.misc.LibraryStore;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.ArgumentCaptor;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.prefs.BackingStoreException;
 import java.util.prefs.Preferences;
@@ -29,214 +38,288 @@ class LibraryManagerTest {
     @Mock
     private Preferences mockPrefs;
 
+    @TempDir
+    Path tempDir;
+
     private Gson gson; 
+    private LibraryStore store;
     private LibraryManager libraryManager;
 
     @BeforeEach
     void setUp() {
         gson = new Gson(); 
+        store = new LibraryStore(tempDir.resolve("library.db"));
+        libraryManager = new LibraryManager(mockPrefs, gson, store);
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.close();
+    }
 
-        libraryManager = new LibraryManager(mockPrefs, gson);
+    private LibraryManager reopen() {
+        store.close();
+        store = new LibraryStore(tempDir.resolve("library.db"));
+        return new LibraryManager(mockPrefs, gson, store);
+    }
+
+    private static JsonObject gameData() {
+        JsonObject gameData = new JsonObject();
+        gameData.addProperty("name", "Test Game");
+        gameData.addProperty("genres", "Action");
+        return gameData;
     }
 
     @Test
     void getLibraryItemIds_whenNoPreference_returnsEmptySet() {
-        when(mockPrefs.get(PREF_LIBRARY, "[]")).thenReturn("[]");
         Set<Integer> ids = libraryManager.getLibraryItemIds();
         assertNotNull(ids);
         assertTrue(ids.isEmpty());
     }
 
     @Test
-    void getLibraryItemIds_whenPreferenceExists_returnsCorrectSet() {
+    void getLibraryItemIds_whenLegacyPreferenceExists_migratesToStore() throws BackingStoreException {
         Set<Integer> expectedIds = new HashSet<>(Arrays.asList(GAME_ID_1, GAME_ID_2));
-        String json = gson.toJson(expectedIds);
-        when(mockPrefs.get(PREF_LIBRARY, "[]")).thenReturn(json);
+        when(mockPrefs.get(PREF_LIBRARY, null)).thenReturn(gson.toJson(expectedIds));
 
         Set<Integer> actualIds = libraryManager.getLibraryItemIds();
 
         assertEquals(expectedIds, actualIds);
+        verify(mockPrefs).remove(PREF_LIBRARY);
+        verify(mockPrefs).flush();
+        assertEquals(expectedIds, store.loadIds().toSet());
     }
 
     @Test
-    void getLibraryItemIds_whenPreferenceInvalidJson_returnsEmptySet() {
-        when(mockPrefs.get(PREF_LIBRARY, "[]")).thenReturn("[invalid json}");
+    void getLibraryItemIds_whenPreferenceInvalidJson_returnsEmptySetAndKeepsPreference() {
+        when(mockPrefs.get(PREF_LIBRARY, null)).thenReturn("[invalid json}");
 
         Set<Integer> ids = libraryManager.getLibraryItemIds();
         assertNotNull(ids);
         assertTrue(ids.isEmpty());
-
+        verify(mockPrefs, never()).remove(anyString());
     }
 
     @Test
-    void addLibraryItem_whenNewItem_addsIdAndSaves() throws BackingStoreException {
+    void getLibraryItemIds_whenMigrationFlushFails_stillReturnsMigratedIds() throws BackingStoreException {
+        when(mockPrefs.get(PREF_LIBRARY, null)).thenReturn(gson.toJson(Arrays.asList(GAME_ID_1)));
+        doThrow(new BackingStoreException("Disk full")).when(mockPrefs).flush();
 
-        when(mockPrefs.get(PREF_LIBRARY, "[]")).thenReturn("[]");
-        JsonObject gameData = new JsonObject();
-        gameData.addProperty("name", "Test Game");
-        gameData.addProperty("genres", "Action"); 
+        assertTrue(libraryManager.isInLibrary(GAME_ID_1));
+        assertTrue(store.loadIds().contains(GAME_ID_1));
+    }
 
-        boolean added = libraryManager.addLibraryItem(GAME_ID_1, gameData);
+    @Test
+    void addLibraryItem_whenNewItem_addsIdAndPersists() {
+        boolean added = libraryManager.addLibraryItem(GAME_ID_1, gameData());
 
         assertTrue(added);
-        ArgumentCaptor<String> jsonCaptor = ArgumentCaptor.forClass(String.class);
-        verify(mockPrefs).put(eq(PREF_LIBRARY), jsonCaptor.capture());
-        verify(mockPrefs).flush();
-
-        Set<Integer> savedIds = gson.fromJson(jsonCaptor.getValue(), new com.google.gson.reflect.TypeToken<Set<Integer>>() {}.getType());
-        assertTrue(savedIds.contains(GAME_ID_1));
-        assertEquals(1, savedIds.size());
-
+        assertTrue(libraryManager.isInLibrary(GAME_ID_1));
+        assertTrue(reopen().isInLibrary(GAME_ID_1));
+        verify(mockPrefs, never()).put(anyString(), anyString());
     }
 
-     @Test
-    void addLibraryItem_whenNewItemWithNullData_addsIdAndSavesWithoutCacheError() throws BackingStoreException {
-
-        when(mockPrefs.get(PREF_LIBRARY, "[]")).thenReturn("[]");
-
+    @Test
+    void addLibraryItem_whenNewItemWithNullData_addsIdAndPersistsWithoutCacheError() {
         boolean added = libraryManager.addLibraryItem(GAME_ID_1, null); 
 
         assertTrue(added);
-        ArgumentCaptor<String> jsonCaptor = ArgumentCaptor.forClass(String.class);
-        verify(mockPrefs).put(eq(PREF_LIBRARY), jsonCaptor.capture());
-        verify(mockPrefs).flush();
-
-        Set<Integer> savedIds = gson.fromJson(jsonCaptor.getValue(), new com.google.gson.reflect.TypeToken<Set<Integer>>() {}.getType());
-        assertTrue(savedIds.contains(GAME_ID_1));
-        assertEquals(1, savedIds.size());
-
+        assertEquals(Set.of(GAME_ID_1), reopen().getLibraryItemIds());
     }
 
     @Test
-    void addLibraryItem_whenExistingItem_returnsFalseAndDoesNotSave() throws BackingStoreException {
-
-        Set<Integer> existingIds = new HashSet<>(Collections.singletonList(GAME_ID_1));
-        String json = gson.toJson(existingIds);
-        when(mockPrefs.get(PREF_LIBRARY, "[]")).thenReturn(json);
-        JsonObject gameData = new JsonObject(); 
+    void addLibraryItem_whenExistingItem_returnsFalse() {
+        libraryManager.addLibraryItem(GAME_ID_1, gameData());
 
-        boolean added = libraryManager.addLibraryItem(GAME_ID_1, gameData);
+        boolean added = libraryManager.addLibraryItem(GAME_ID_1, new JsonObject());
 
         assertFalse(added);
-        verify(mockPrefs, never()).put(anyString(), anyString());
-        verify(mockPrefs, never()).flush();
-
+        assertEquals(1, store.loadIds().size());
     }
 
     @Test
-    void removeLibraryItem_whenItemExists_removesIdAndSaves() throws BackingStoreException {
-
-        Set<Integer> existingIds = new HashSet<>(Arrays.asList(GAME_ID_1, GAME_ID_2));
-        String json = gson.toJson(existingIds);
-        when(mockPrefs.get(PREF_LIBRARY, "[]")).thenReturn(json);
+    void removeLibraryItem_whenItemExists_removesIdAndPersists() {
+        store.addAll(new int[]{GAME_ID_1, GAME_ID_2});
 
         boolean removed = libraryManager.removeLibraryItem(GAME_ID_1);
 
         assertTrue(removed);
-        ArgumentCaptor<String> jsonCaptor = ArgumentCaptor.forClass(String.class);
-        verify(mockPrefs).put(eq(PREF_LIBRARY), jsonCaptor.capture());
-        verify(mockPrefs).flush();
-
-        Set<Integer> savedIds = gson.fromJson(jsonCaptor.getValue(), new com.google.gson.reflect.TypeToken<Set<Integer>>() {}.getType());
+        Set<Integer> savedIds = reopen().getLibraryItemIds();
         assertFalse(savedIds.contains(GAME_ID_1));
         assertTrue(savedIds.contains(GAME_ID_2));
         assertEquals(1, savedIds.size());
-
     }
 
     @Test
-    void removeLibraryItem_whenItemDoesNotExist_returnsFalseAndDoesNotSave() throws BackingStoreException {
-
-        Set<Integer> existingIds = new HashSet<>(Collections.singletonList(GAME_ID_2));
-        String json = gson.toJson(existingIds);
-        when(mockPrefs.get(PREF_LIBRARY, "[]")).thenReturn(json);
+    void removeLibraryItem_whenItemDoesNotExist_returnsFalse() {
+        store.addAll(new int[]{GAME_ID_2});
 
         boolean removed = libraryManager.removeLibraryItem(GAME_ID_1); 
 
         assertFalse(removed);
-        verify(mockPrefs, never()).put(anyString(), anyString());
-        verify(mockPrefs, never()).flush();
-
+        assertEquals(Set.of(GAME_ID_2), store.loadIds().toSet());
     }
 
     @Test
     void isInLibrary_whenItemExists_returnsTrue() {
-        Set<Integer> existingIds = new HashSet<>(Collections.singletonList(GAME_ID_1));
-        String json = gson.toJson(existingIds);
-        when(mockPrefs.get(PREF_LIBRARY, "[]")).thenReturn(json);
+        store.addAll(new int[]{GAME_ID_1});
 
         assertTrue(libraryManager.isInLibrary(GAME_ID_1));
     }
 
     @Test
     void isInLibrary_whenItemDoesNotExist_returnsFalse() {
-        Set<Integer> existingIds = new HashSet<>(Collections.singletonList(GAME_ID_2));
-        String json = gson.toJson(existingIds);
-        when(mockPrefs.get(PREF_LIBRARY, "[]")).thenReturn(json);
+        store.addAll(new int[]{GAME_ID_2});
 
         assertFalse(libraryManager.isInLibrary(GAME_ID_1));
     }
 
+    @Test
+    void isInLibrary_whenCalledRepeatedly_loadsOnce() {
+        when(mockPrefs.get(PREF_LIBRARY, null)).thenReturn(gson.toJson(Arrays.asList(GAME_ID_1, GAME_ID_2)));
+
+        assertTrue(libraryManager.isInLibrary(GAME_ID_1));
+        assertTrue(libraryManager.isInLibrary(GAME_ID_2));
+        assertFalse(libraryManager.isInLibrary(789));
+
+        verify(mockPrefs, times(1)).get(PREF_LIBRARY, null);
+    }
+
     @Test
     void isInLibrary_whenLibraryEmpty_returnsFalse() {
-        when(mockPrefs.get(PREF_LIBRARY, "[]")).thenReturn("[]");
         assertFalse(libraryManager.isInLibrary(GAME_ID_1));
     }
 
     @Test
-    void clearLibrary_savesEmptySet() throws BackingStoreException {
+    void clearLibrary_removesAllIdsAndLegacyPreference() throws BackingStoreException {
+        store.addAll(new int[]{GAME_ID_1, GAME_ID_2});
 
         libraryManager.clearLibrary();
 
-        ArgumentCaptor<String> jsonCaptor = ArgumentCaptor.forClass(String.class);
-        verify(mockPrefs).put(eq(PREF_LIBRARY), jsonCaptor.capture());
+        assertTrue(libraryManager.getLibraryItemIds().isEmpty());
+        assertTrue(store.loadIds().isEmpty());
+        verify(mockPrefs).remove(PREF_LIBRARY);
         verify(mockPrefs).flush();
+    }
+
+    @Test
+    void clearLibrary_whenFlushThrowsException_stillClearsStore() throws BackingStoreException {
+        store.addAll(new int[]{GAME_ID_1});
+        doThrow(new BackingStoreException("Disk full")).when(mockPrefs).flush();
+
+        libraryManager.clearLibrary(); 
 
-        Set<Integer> savedIds = gson.fromJson(jsonCaptor.getValue(), new com.google.gson.reflect.TypeToken<Set<Integer>>() {}.getType());
-        assertTrue(savedIds.isEmpty());
+        assertTrue(store.loadIds().isEmpty());
+        verify(mockPrefs).flush(); 
     }
 
     @Test
-    void addLibraryItem_whenFlushThrowsException_propagatesOrLogs() throws BackingStoreException {
+    void edit_whenStoreWriteFails_throwsAndLeavesLibraryUnchanged() {
+        libraryManager.addLibraryItem(GAME_ID_1, null);
+        List<LibraryManager.Changes> events = new ArrayList<>();
+        libraryManager.addChangeListener(events::add);
+        store.close();
 
-        when(mockPrefs.get(PREF_LIBRARY, "[]")).thenReturn("[]");
-        JsonObject gameData = new JsonObject();
-        gameData.addProperty("name", "Test Game");
-        gameData.addProperty("genres", "Action");
+        assertThrows(IllegalStateException.class, () -> libraryManager.addLibraryItem(GAME_ID_2, null));
+        assertThrows(IllegalStateException.class, () -> libraryManager.removeLibraryItem(GAME_ID_1));
 
-        doThrow(new BackingStoreException("Disk full")).when(mockPrefs).flush();
+        assertEquals(Set.of(GAME_ID_1), libraryManager.getLibraryItemIds());
+        assertTrue(events.isEmpty());
+    }
 
-        boolean added = libraryManager.addLibraryItem(GAME_ID_1, gameData);
+    @Test
+    void close_closesStoreAndKeepsSavedItems() {
+        libraryManager.addLibraryItem(GAME_ID_1, null);
 
-        assertTrue(added); 
-        verify(mockPrefs).put(eq(PREF_LIBRARY), anyString());
-        verify(mockPrefs).flush(); 
+        libraryManager.close();
 
+        assertThrows(IllegalStateException.class, () -> libraryManager.addLibraryItem(GAME_ID_2, null));
+        assertEquals(Set.of(GAME_ID_1), reopen().getLibraryItemIds());
     }
 
-     @Test
-    void removeLibraryItem_whenFlushThrowsException_propagatesOrLogs() throws BackingStoreException {
+    @Test
+    void addLibraryItem_beyondPreferenceValueLimit_keepsGrowing() {
+        int count = Preferences.MAX_VALUE_LENGTH / 4;
+        for (int gameId = 100000; gameId < 100000 + count; gameId++) {
+            assertTrue(libraryManager.addLibraryItem(gameId, null));
+        }
 
-        Set<Integer> existingIds = new HashSet<>(Collections.singletonList(GAME_ID_1));
-        String json = gson.toJson(existingIds);
-        when(mockPrefs.get(PREF_LIBRARY, "[]")).thenReturn(json);
-        doThrow(new BackingStoreException("Disk full")).when(mockPrefs).flush();
+        assertEquals(count, reopen().getLibraryItemIds().size());
+    }
 
-        boolean removed = libraryManager.removeLibraryItem(GAME_ID_1);
+    @Test
+    void edit_addAndRemoveInOneBatch_appliesBothAndReportsChanges() {
+        store.addAll(new int[]{GAME_ID_1});
 
-        assertTrue(removed); 
-        verify(mockPrefs).put(eq(PREF_LIBRARY), anyString());
-        verify(mockPrefs).flush(); 
+        LibraryManager.Changes changes = libraryManager.edit(edit -> edit
+                .remove(GAME_ID_1)
+                .add(GAME_ID_2, null)
+                .add(789, null));
+
+        assertArrayEquals(new int[]{GAME_ID_2, 789}, changes.getAddedIds().toArray());
+        assertArrayEquals(new int[]{GAME_ID_1}, changes.getRemovedIds().toArray());
+        assertEquals(Set.of(GAME_ID_2, 789), reopen().getLibraryItemIds());
     }
 
-     @Test
-    void clearLibrary_whenFlushThrowsException_propagatesOrLogs() throws BackingStoreException {
+    @Test
+    void removeAll_ignoresIdsNotInLibrary() {
+        store.addAll(new int[]{GAME_ID_1, GAME_ID_2});
 
-        doThrow(new BackingStoreException("Disk full")).when(mockPrefs).flush();
+        LibraryManager.Changes changes = libraryManager.removeAll(Arrays.asList(GAME_ID_1, 789));
 
-        libraryManager.clearLibrary(); 
+        assertArrayEquals(new int[]{GAME_ID_1}, changes.getRemovedIds().toArray());
+        assertEquals(Set.of(GAME_ID_2), store.loadIds().toSet());
+    }
 
-        verify(mockPrefs).put(eq(PREF_LIBRARY), eq("[]")); 
-        verify(mockPrefs).flush(); 
+    @Test
+    void exportLibrary_thenImportLibrary_roundTripsIds() throws IOException {
+        libraryManager.addAll(Map.of(900001, new JsonObject(), 900002, new JsonObject()));
+        StringWriter exported = new StringWriter();
+
+        int written = libraryManager.exportLibrary(exported);
+
+        assertEquals(2, written);
+        store.clear();
+        LibraryManager target = reopen();
+        LibraryManager.Changes changes = target.importLibrary(new StringReader(exported + "\nnot json\n\n"));
+        assertEquals(2, changes.getAddedIds().size());
+        assertEquals(Set.of(900001, 900002), target.getLibraryItemIds());
+    }
+
+    @Test
+    void changeListener_receivesOneEventPerEffectiveEdit() {
+        List<LibraryManager.Changes> events = new ArrayList<>();
+        libraryManager.addChangeListener(events::add);
+
+        libraryManager.addAll(Map.of(GAME_ID_1, new JsonObject(), GAME_ID_2, new JsonObject()));
+        libraryManager.addLibraryItem(GAME_ID_1, null);
+        libraryManager.removeLibraryItem(GAME_ID_2);
+        libraryManager.clearLibrary();
+
+        assertEquals(3, events.size());
+        assertArrayEquals(new int[]{GAME_ID_1, GAME_ID_2}, events.get(0).getAddedIds().toArray());
+        assertArrayEquals(new int[]{GAME_ID_2}, events.get(1).getRemovedIds().toArray());
+        assertArrayEquals(new int[]{GAME_ID_1}, events.get(2).getRemovedIds().toArray());
+    }
+
+    @Test
+    void getLibraryStats_updatesIncrementallyOnEdits() {
+        JsonObject game = gameData();
+        game.remove("genres");
+        game.add("genres", JsonParser.parseString("[{\"name\":\"Action\"}]"));
+        game.addProperty("playtime", 12);
+        libraryManager.addLibraryItem(GAME_ID_1, game);
+
+        LibraryStats before = libraryManager.getLibraryStats();
+        libraryManager.removeLibraryItem(GAME_ID_1);
+        libraryManager.addLibraryItem(GAME_ID_2, null);
+        LibraryStats after = libraryManager.getLibraryStats();
+
+        assertEquals(1, before.getGameCount());
+        assertEquals(Map.of("Action", 1), before.getGenreCounts());
+        assertEquals(12, before.getTotalPlaytimeHours());
+        assertEquals(1, after.getGameCount());
+        assertEquals(0, after.getAnalyzedCount());
+        assertTrue(after.getGenreCounts().isEmpty());
     }
-}
\ No newline at end of file
+}
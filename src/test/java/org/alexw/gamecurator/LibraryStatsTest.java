@@ -0,0 +1,58 @@
+package org.alexw.gamecurator;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LibraryStatsTest {
+
+    private static JsonObject game(String genres, String platforms, int playtime, double rating, String released) {
+        return JsonParser.parseString("{\"genres\":[" + genres + "],\"platforms\":[" + platforms + "],"
+                + "\"playtime\":" + playtime + ",\"rating\":" + rating + ",\"released\":\"" + released + "\"}").getAsJsonObject();
+    }
+
+    @Test
+    void tracker_aggregatesFacetsAndMedian() {
+        LibraryStats.Tracker tracker = new LibraryStats.Tracker();
+        tracker.add(1, game("{\"name\":\"Action\"},{\"name\":\"RPG\"}", "{\"platform\":{\"name\":\"PC\"}}", 10, 4.5, "2015-05-19"));
+        tracker.add(2, game("{\"name\":\"Action\"}", "{\"platform\":{\"name\":\"PC\"}},{\"platform\":{\"name\":\"Xbox\"}}", 4, 3.2, "2015-11-10"));
+        tracker.add(3, game("{\"name\":\"Puzzle\"}", "", 2, 0, "2011-04-18"));
+        tracker.add(4, null);
+
+        LibraryStats stats = tracker.snapshot();
+
+        assertEquals(4, stats.getGameCount());
+        assertEquals(3, stats.getAnalyzedCount());
+        assertEquals(List.of("Action", "Puzzle"), stats.getTopGenres(2));
+        assertEquals(Map.of("PC", 2, "Xbox", 1), stats.getPlatformCounts());
+        assertEquals(16, stats.getTotalPlaytimeHours());
+        assertEquals(4.0, stats.getMedianPlaytimeHours());
+        assertEquals(1, stats.getRatingBucketCount(4));
+        assertEquals(1, stats.getRatingBucketCount(3));
+        assertEquals(1, stats.getUnratedCount());
+        assertEquals(Map.of(2011, 1, 2015, 2), stats.getReleaseYearCounts());
+    }
+
+    @Test
+    void tracker_removeReversesContribution() {
+        LibraryStats.Tracker tracker = new LibraryStats.Tracker();
+        tracker.add(1, game("{\"name\":\"Action\"}", "{\"platform\":{\"name\":\"PC\"}}", 10, 4.5, "2015-05-19"));
+        tracker.add(2, game("{\"name\":\"RPG\"}", "", 30, 4.1, "2020-01-01"));
+
+        tracker.remove(2);
+        tracker.remove(99);
+        LibraryStats stats = tracker.snapshot();
+
+        assertEquals(1, stats.getGameCount());
+        assertEquals(Map.of("Action", 1), stats.getGenreCounts());
+        assertEquals(10, stats.getTotalPlaytimeHours());
+        assertEquals(10.0, stats.getMedianPlaytimeHours());
+        assertEquals(1, stats.getRatingBucketCount(4));
+        assertEquals(Map.of(2015, 1), stats.getReleaseYearCounts());
+    }
+}
@@ -0,0 +1,88 @@
+package org.alexw.gamecurator.ai;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LLMClientTest {
+
+    private static class StalledStream {
+        final CountDownLatch reading = new CountDownLatch(1);
+        final CountDownLatch released = new CountDownLatch(1);
+        final CountDownLatch closed = new CountDownLatch(1);
+        final LinkedBlockingQueue<String> lines = new LinkedBlockingQueue<>();
+
+        Stream<String> stream() {
+            Iterator<String> iterator = new Iterator<>() {
+                @Override
+                public boolean hasNext() {
+                    reading.countDown();
+                    try {
+                        lines.take();
+                        return true;
+                    } catch (InterruptedException e) {
+                        released.countDown();
+                        throw new UncheckedIOException(new IOException("interrupted"));
+                    }
+                }
+
+                @Override
+                public String next() {
+                    return "";
+                }
+            };
+            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false)
+                    .onClose(closed::countDown);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static CompletableFuture<String> consume(StalledStream body, Duration timeout) {
+        HttpResponse<Stream<String>> response = mock(HttpResponse.class);
+        when(response.statusCode()).thenReturn(200);
+        when(response.body()).thenReturn(body.stream());
+        return LLMClient.consumeEventStream(CompletableFuture.completedFuture(response), timeout, System.nanoTime(), content -> { });
+    }
+
+    @Test
+    void consumeEventStream_silentServer_timesOutAndReleasesReader() throws Exception {
+        StalledStream body = new StalledStream();
+
+        CompletableFuture<String> result = consume(body, Duration.ofMillis(200));
+
+        ExecutionException error = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(TimeoutException.class, error.getCause());
+        assertTrue(body.released.await(5, TimeUnit.SECONDS));
+        assertTrue(body.closed.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void consumeEventStream_cancelledWhileReading_closesStreamAndReleasesReader() throws Exception {
+        StalledStream body = new StalledStream();
+
+        CompletableFuture<String> result = consume(body, Duration.ofMinutes(1));
+        assertTrue(body.reading.await(5, TimeUnit.SECONDS));
+        result.cancel(true);
+
+        assertTrue(body.released.await(5, TimeUnit.SECONDS));
+        assertTrue(body.closed.await(5, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,81 @@
+package org.alexw.gamecurator.ai;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.alexw.gamecurator.misc.CacheManager;
+import org.alexw.gamecurator.util.IntSet;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalRecommenderTest {
+
+    private static JsonObject game(int id, double rating, String... genres) {
+        String genreJson = List.of(genres).stream().map(g -> "{\"name\":\"" + g + "\"}").collect(Collectors.joining(","));
+        return JsonParser.parseString("{\"id\":" + id + ",\"name\":\"Game " + id + "\",\"rating\":" + rating
+                + ",\"genres\":[" + genreJson + "],\"platforms\":[{\"platform\":{\"name\":\"PC\"}}]}").getAsJsonObject();
+    }
+
+    private static List<Integer> ids(LocalRecommender.Result result) {
+        return result.getPicks().stream().map(pick -> pick.getGame().get("id").getAsInt()).collect(Collectors.toList());
+    }
+
+    @Test
+    void recommend_ranksBySimilarityAndExcludesOwnedGames() {
+        List<JsonObject> library = List.of(game(1, 4.0, "RPG", "Action"), game(2, 4.2, "Action", "RPG"));
+        List<JsonObject> candidates = List.of(
+                game(1, 4.0, "RPG", "Action"),
+                game(10, 3.0, "Puzzle"),
+                game(11, 4.5, "RPG", "Action"),
+                game(12, 4.1, "RPG"),
+                game(13, 3.5, "Action", "Racing", "Sports", "Casual"));
+
+        LocalRecommender.Result result = new LocalRecommender(3).recommend(library, candidates, IntSet.of(1, 2));
+
+        assertEquals(List.of(11, 12, 13), ids(result));
+        assertTrue(result.getPicks().get(0).getScore() > result.getPicks().get(2).getScore());
+    }
+
+    @Test
+    void recommend_tiesBreakOnRatingThenId() {
+        List<JsonObject> library = List.of(game(1, 4.0, "Strategy"));
+        List<JsonObject> candidates = List.of(game(30, 3.0, "Strategy"), game(20, 4.8, "Strategy"), game(10, 3.0, "Strategy"));
+
+        LocalRecommender.Result result = new LocalRecommender(5).recommend(library, candidates, IntSet.of(1));
+
+        assertEquals(List.of(20, 10, 30), ids(result));
+    }
+
+    @Test
+    void recommend_emptyLibrary_returnsNoPicks() {
+        LocalRecommender.Result result = new LocalRecommender(5).recommend(List.of(), List.of(game(10, 4.0, "RPG")), IntSet.empty());
+
+        assertTrue(result.getPicks().isEmpty());
+    }
+
+    @Test
+    void recommendFromCache_reusesParsedEntriesUntilTheyChange() {
+        String libraryKey = "gameData_-7001";
+        String searchKey = "search_localRecommenderTest";
+        try {
+            CacheManager.put(libraryKey, game(-7001, 4.0, "LocalRecommenderTestGenre").toString());
+            CacheManager.put(searchKey, "[" + game(970001, 4.0, "LocalRecommenderTestGenre") + "]");
+            LocalRecommender recommender = new LocalRecommender(1);
+
+            JsonObject first = recommender.recommendFromCache(IntSet.of(-7001)).getPicks().get(0).getGame();
+            JsonObject again = recommender.recommendFromCache(IntSet.of(-7001)).getPicks().get(0).getGame();
+            CacheManager.put(searchKey, "[" + game(970002, 4.0, "LocalRecommenderTestGenre") + "]");
+            JsonObject changed = recommender.recommendFromCache(IntSet.of(-7001)).getPicks().get(0).getGame();
+
+            assertEquals(970001, first.get("id").getAsInt());
+            assertSame(first, again);
+            assertEquals(970002, changed.get("id").getAsInt());
+        } finally {
+            CacheManager.remove(libraryKey);
+            CacheManager.remove(searchKey);
+        }
+    }
+}
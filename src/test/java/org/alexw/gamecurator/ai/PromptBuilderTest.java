@@ -0,0 +1,66 @@
+package org.alexw.gamecurator.ai;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PromptBuilderTest {
+
+    private static List<PromptBuilder.PromptEntry> library(int size) {
+        List<PromptBuilder.PromptEntry> entries = new ArrayList<>();
+        for (int i = 1; i <= size; i++) {
+            entries.add(new PromptBuilder.PromptEntry(i, "Game " + i, List.of(i % 2 == 0 ? "Action" : "Puzzle"),
+                    (i % 50) / 10.0, String.format("20%02d-01-01", i % 25)));
+        }
+        return entries;
+    }
+
+    @Test
+    void build_smallLibrary_includesEveryEntryWithoutSummary() {
+        PromptBuilder.Result result = new PromptBuilder(6000).build(library(5), null);
+
+        assertEquals(5, result.getIncludedCount());
+        assertEquals(0, result.getSummarizedCount());
+        assertFalse(result.getPrompt().contains("Library summary"));
+        assertTrue(result.getPrompt().startsWith("Title: Game 5\nGenres: Puzzle\n---\n"));
+    }
+
+    @Test
+    void build_largeLibrary_staysWithinBudgetAndSummarizesRest() {
+        PromptBuilder.Result result = new PromptBuilder(1000).build(library(500), null);
+
+        assertTrue(result.getEstimatedTokens() <= 1000, result.describe());
+        assertEquals(500, result.getIncludedCount() + result.getSummarizedCount());
+        assertTrue(result.getSummarizedCount() > 0);
+        assertTrue(result.getPrompt().contains("Library summary for " + result.getSummarizedCount() + " more games"));
+        assertTrue(result.getPrompt().contains("Genre counts: "));
+        assertTrue(result.getPrompt().contains("Most recent releases: "));
+    }
+
+    @Test
+    void build_isDeterministicRegardlessOfInputOrder() {
+        List<PromptBuilder.PromptEntry> shuffled = library(300);
+        Collections.shuffle(shuffled);
+
+        assertEquals(new PromptBuilder(800).build(library(300), null).getPrompt(),
+                new PromptBuilder(800).build(shuffled, null).getPrompt());
+    }
+
+    @Test
+    void fromGame_readsNameGenresRatingAndRelease() {
+        JsonObject game = JsonParser.parseString("{\"name\":\"Hades\",\"genres\":[{\"name\":\"Action\"},{\"name\":\"Indie\"}],"
+                + "\"rating\":4.6,\"released\":\"2020-09-17\"}").getAsJsonObject();
+
+        PromptBuilder.PromptEntry entry = PromptBuilder.PromptEntry.fromGame(7, game);
+
+        assertEquals("Title: Hades\nGenres: Action Indie\n---\n", entry.getText());
+        assertEquals(4.6, entry.getRating());
+        assertEquals("2020-09-17", entry.getReleased());
+    }
+}
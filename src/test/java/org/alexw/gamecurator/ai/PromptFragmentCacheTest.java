@@ -0,0 +1,79 @@
+package org.alexw.gamecurator.ai;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.alexw.gamecurator.LibraryManager;
+import org.alexw.gamecurator.misc.CacheManager;
+import org.alexw.gamecurator.misc.LibraryStore;
+import org.alexw.gamecurator.util.IntSet;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.prefs.Preferences;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class PromptFragmentCacheTest {
+
+    private static final int GAME_ID_1 = -7101;
+    private static final int GAME_ID_2 = -7102;
+
+    @TempDir
+    Path tempDir;
+
+    private LibraryStore store;
+    private LibraryManager libraryManager;
+
+    @BeforeEach
+    void setUp() {
+        store = new LibraryStore(tempDir.resolve("library.db"));
+        libraryManager = new LibraryManager(mock(Preferences.class), new Gson(), store);
+    }
+
+    @AfterEach
+    void tearDown() {
+        libraryManager.clearLibrary();
+        store.close();
+    }
+
+    private static JsonObject game(int id, String name) {
+        return JsonParser.parseString("{\"id\":" + id + ",\"name\":\"" + name + "\",\"genres\":[{\"name\":\"RPG\"}]}").getAsJsonObject();
+    }
+
+    @Test
+    void onLibraryChanged_keepsFragmentsInSyncWithLibrary() {
+        PromptFragmentCache cache = PromptFragmentCache.start(libraryManager, Runnable::run);
+
+        libraryManager.addLibraryItem(GAME_ID_1, game(GAME_ID_1, "Hades"));
+        libraryManager.addLibraryItem(GAME_ID_2, game(GAME_ID_2, "Celeste"));
+        assertEquals(2, cache.size());
+
+        libraryManager.removeLibraryItem(GAME_ID_1);
+        assertEquals(1, cache.size());
+
+        List<PromptBuilder.PromptEntry> entries = cache.entriesFor(libraryManager.getLibrarySnapshot()).join();
+        assertEquals(List.of("Celeste"), entries.stream().map(PromptBuilder.PromptEntry::getName).collect(Collectors.toList()));
+        assertEquals("Title: Celeste\nGenres: RPG\n---\n", entries.get(0).getText());
+    }
+
+    @Test
+    void entriesFor_loadsMissingFragmentsAndSkipsUncachedGames() {
+        PromptFragmentCache cache = PromptFragmentCache.start(libraryManager, Runnable::run);
+        CacheManager.put("gameData_" + GAME_ID_1, game(GAME_ID_1, "Hades").toString());
+        CacheManager.remove("gameData_" + GAME_ID_2);
+
+        List<PromptBuilder.PromptEntry> entries = cache.entriesFor(IntSet.of(GAME_ID_1, GAME_ID_2)).join();
+
+        assertEquals(1, entries.size());
+        assertEquals(GAME_ID_1, entries.get(0).getGameId());
+        assertEquals(1, cache.size());
+        CacheManager.remove("gameData_" + GAME_ID_1);
+    }
+}
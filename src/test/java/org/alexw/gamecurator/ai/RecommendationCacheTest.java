@@ -0,0 +1,40 @@
+package org.alexw.gamecurator.ai;
+
+import org.alexw.gamecurator.util.IntSet;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecommendationCacheTest {
+
+    @Test
+    void fingerprint_dependsOnIdsModelPromptVersionAndVariant() {
+        String fingerprint = RecommendationCache.fingerprint(IntSet.of(3, 1, 2), "model-a", 1, "budget=6000");
+
+        assertEquals(fingerprint, RecommendationCache.fingerprint(IntSet.of(2, 3, 1, 1), "model-a", 1, "budget=6000"));
+        assertEquals(64, fingerprint.length());
+        assertNotEquals(fingerprint, RecommendationCache.fingerprint(IntSet.of(1, 2), "model-a", 1, "budget=6000"));
+        assertNotEquals(fingerprint, RecommendationCache.fingerprint(IntSet.of(1, 2, 3), "model-b", 1, "budget=6000"));
+        assertNotEquals(fingerprint, RecommendationCache.fingerprint(IntSet.of(1, 2, 3), "model-a", 2, "budget=6000"));
+        assertNotEquals(fingerprint, RecommendationCache.fingerprint(IntSet.of(1, 2, 3), "model-a", 1, "budget=3000"));
+    }
+
+    @Test
+    void get_afterPut_returnsCachedRecommendationsAndCountsHit() {
+        IntSet library = IntSet.of(-9001, -9002);
+        LLMClient.GameRecommendations recommendations = new LLMClient.GameRecommendations();
+        recommendations.reasoning = "Because";
+        recommendations.answer = List.of("Celeste", "Hades");
+
+        RecommendationCache.get(IntSet.of(-9003), "budget=6000");
+        RecommendationCache.put(library, "budget=6000", recommendations);
+        LLMClient.GameRecommendations cached = RecommendationCache.get(library, "budget=6000");
+
+        assertNotNull(cached);
+        assertEquals("Because", cached.getReasoning());
+        assertEquals(List.of("Celeste", "Hades"), cached.getAnswer());
+        assertTrue(RecommendationCache.getHitRate() > 0.0 && RecommendationCache.getHitRate() < 1.0);
+    }
+}
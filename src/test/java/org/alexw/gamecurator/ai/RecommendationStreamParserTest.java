@@ -0,0 +1,75 @@
+package org.alexw.gamecurator.ai;
+
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecommendationStreamParserTest {
+
+    private static class RecordingListener implements RecommendationStreamParser.Listener {
+        final List<String> reasoningDeltas = new ArrayList<>();
+        final List<List<String>> answers = new ArrayList<>();
+
+        @Override
+        public void onReasoning(String delta) {
+            reasoningDeltas.add(delta);
+        }
+
+        @Override
+        public void onAnswer(List<String> answer) {
+            answers.add(answer);
+        }
+    }
+
+    @Test
+    void feed_splitAcrossChunks_streamsReasoningAndAnswer() {
+        String json = "{\"reasoning\":\"Likes \\\"souls\\\" games\\nand caf\\u00e9s\",\"answer\":[\"Hollow Knight\",\"Elden Ring\"]}";
+        RecordingListener listener = new RecordingListener();
+        RecommendationStreamParser parser = new RecommendationStreamParser(listener);
+
+        for (int i = 0; i < json.length(); i += 3) {
+            parser.feed(json.substring(i, Math.min(json.length(), i + 3)));
+        }
+
+        assertTrue(parser.isComplete());
+        assertEquals("Likes \"souls\" games\nand cafés", parser.getReasoning());
+        assertEquals(parser.getReasoning(), String.join("", listener.reasoningDeltas));
+        assertTrue(listener.reasoningDeltas.size() > 1);
+        assertEquals(List.of(List.of("Hollow Knight", "Elden Ring")), listener.answers);
+    }
+
+    @Test
+    void feed_answerIsReportedBeforeObjectCloses() {
+        RecordingListener listener = new RecordingListener();
+        RecommendationStreamParser parser = new RecommendationStreamParser(listener);
+
+        parser.feed("```json\n{\"answer\": [\"Celeste\"], \"reason");
+
+        assertEquals(List.of(List.of("Celeste")), listener.answers);
+        assertFalse(parser.isComplete());
+    }
+
+    @Test
+    void feed_skipsUnknownFields() {
+        RecordingListener listener = new RecordingListener();
+        RecommendationStreamParser parser = new RecommendationStreamParser(listener);
+
+        parser.feed("{\"meta\":{\"tags\":[\"a]\",{\"b\":1}]},\"score\":3,\"reasoning\":\"ok\",\"answer\":[\"Hades\"]}");
+
+        assertTrue(parser.isComplete());
+        assertEquals("ok", parser.getReasoning());
+        assertEquals(List.of("Hades"), parser.getAnswer());
+    }
+
+    @Test
+    void extractDeltaContent_readsStreamingChunk() {
+        assertEquals("Hi", LLMClient.extractDeltaContent(JsonParser.parseString(
+                "{\"choices\":[{\"index\":0,\"delta\":{\"role\":\"assistant\",\"content\":\"Hi\"}}]}").getAsJsonObject()));
+        assertNull(LLMClient.extractDeltaContent(JsonParser.parseString(
+                "{\"choices\":[{\"index\":0,\"delta\":{},\"finish_reason\":\"stop\"}]}").getAsJsonObject()));
+    }
+}
@@ -0,0 +1,100 @@
+package org.alexw.gamecurator.ai;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardedRecommenderTest {
+
+    private static List<PromptBuilder.PromptEntry> library(int perGenre, String... genres) {
+        List<PromptBuilder.PromptEntry> entries = new ArrayList<>();
+        int id = 1;
+        for (String genre : genres) {
+            for (int i = 0; i < perGenre; i++, id++) {
+                entries.add(new PromptBuilder.PromptEntry(id, genre + " Game " + i, List.of(genre), 3.0, "2020-01-01"));
+            }
+        }
+        return entries;
+    }
+
+    private static LLMClient.GameRecommendations answer(String... titles) {
+        LLMClient.GameRecommendations recommendations = new LLMClient.GameRecommendations();
+        recommendations.reasoning = "because";
+        recommendations.answer = List.of(titles);
+        return recommendations;
+    }
+
+    @Test
+    void partition_keepsGenresTogetherWithinBudget() {
+        ShardedRecommender recommender = new ShardedRecommender(500, 2, Duration.ofSeconds(5), prompt -> null);
+
+        List<List<PromptBuilder.PromptEntry>> shards = recommender.partition(library(60, "Action", "Puzzle"));
+
+        assertTrue(shards.size() > 2);
+        assertEquals(120, shards.stream().mapToInt(List::size).sum());
+        for (List<PromptBuilder.PromptEntry> shard : shards) {
+            int tokens = shard.stream().mapToInt(entry -> PromptBuilder.estimateTokens(entry.getText())).sum();
+            assertTrue(tokens <= 500);
+        }
+        assertTrue(shards.get(0).stream().allMatch(entry -> entry.getGenres().equals(shards.get(0).get(0).getGenres())));
+    }
+
+    @Test
+    void recommend_mergesVotesSkipsOwnedGamesAndFailedShards() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        ShardedRecommender recommender = new ShardedRecommender(500, 2, Duration.ofSeconds(5), prompt -> {
+            int call = calls.incrementAndGet();
+            if (call == 1) {
+                return CompletableFuture.completedFuture(answer("Hades", "Celeste", "Action Game 3"));
+            }
+            if (call == 2) {
+                return CompletableFuture.failedFuture(new RuntimeException("HTTP 503"));
+            }
+            return CompletableFuture.completedFuture(answer("Celeste", "Hollow Knight"));
+        });
+
+        LLMClient.GameRecommendations merged = recommender.recommend(library(60, "Action", "Puzzle")).get();
+
+        assertTrue(calls.get() > 2);
+        assertEquals("Celeste", merged.getAnswer().get(0));
+        assertTrue(merged.getAnswer().contains("Hades"));
+        assertTrue(merged.getAnswer().contains("Hollow Knight"));
+        assertFalse(merged.getAnswer().contains("Action Game 3"));
+        assertTrue(merged.getAnswer().size() <= ShardedRecommender.ANSWER_SIZE);
+    }
+
+    @Test
+    void recommend_allShardsTimeOut_fails() {
+        ShardedRecommender recommender = new ShardedRecommender(500, 4, Duration.ofMillis(50), prompt -> new CompletableFuture<>());
+
+        ExecutionException error = assertThrows(ExecutionException.class,
+                () -> recommender.recommend(library(60, "Action")).get());
+        assertTrue(error.getCause() instanceof IllegalStateException);
+    }
+
+    @Test
+    void recommend_timedOutShards_areCancelledBeforeTheNextStarts() {
+        List<CompletableFuture<LLMClient.GameRecommendations>> calls = new CopyOnWriteArrayList<>();
+        AtomicInteger maxOutstanding = new AtomicInteger();
+        ShardedRecommender recommender = new ShardedRecommender(500, 2, Duration.ofMillis(50), prompt -> {
+            CompletableFuture<LLMClient.GameRecommendations> call = new CompletableFuture<>();
+            calls.add(call);
+            maxOutstanding.accumulateAndGet((int) calls.stream().filter(future -> !future.isDone()).count(), Math::max);
+            return call;
+        });
+
+        assertThrows(ExecutionException.class, () -> recommender.recommend(library(60, "Action", "Puzzle")).get());
+
+        assertTrue(calls.size() > 2);
+        assertTrue(calls.stream().allMatch(CompletableFuture::isCancelled));
+        assertEquals(2, maxOutstanding.get());
+    }
+}
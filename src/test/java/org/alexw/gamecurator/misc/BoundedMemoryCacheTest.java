@@ -0,0 +1,61 @@
+package org.alexw.gamecurator.misc;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedMemoryCacheTest {
+
+    private BoundedMemoryCache<String, String> cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new BoundedMemoryCache<>(10, value -> value.length());
+    }
+
+    @Test
+    void get_afterPut_returnsSameInstanceAndCountsHit() {
+        String value = new String("abcd");
+        cache.put("a", value);
+
+        assertSame(value, cache.get("a"));
+        assertNull(cache.get("missing"));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(0.5, cache.getHitRate(), 0.0001);
+    }
+
+    @Test
+    void put_overBudget_evictsLeastRecentlyUsedFirst() {
+        cache.put("a", "aaaa");
+        cache.put("b", "bbbb");
+        cache.get("a");
+        cache.put("c", "cccc");
+
+        assertEquals(2, cache.getRetainedCount());
+        assertEquals(8, cache.getWeight());
+        assertEquals(1, cache.getEvictionCount());
+    }
+
+    @Test
+    void get_evictedValueStillReferencedElsewhere_isReusedWithoutReload() {
+        String stillOnScreen = new String("bbbb");
+        cache.put("b", stillOnScreen);
+        cache.put("a", "aaaa");
+        cache.put("c", "cccc");
+        cache.put("d", "dddd");
+
+        assertSame(stillOnScreen, cache.get("b"));
+        assertEquals(0, cache.getMissCount());
+    }
+
+    @Test
+    void clear_dropsRetainedAndReleasedValues() {
+        cache.put("a", "aaaa");
+        cache.clear();
+
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.getWeight());
+    }
+}
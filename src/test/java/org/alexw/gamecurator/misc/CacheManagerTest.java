@@ -16,6 +16,7 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -232,6 +233,32 @@ class CacheManagerTest {
          mockedCacheManager.verify(() -> saveCacheToFileMethod.invoke(null), never());
     }
 
+    @Test
+    void putAll_addsEveryItemWithSingleSave() throws Exception {
+        CacheManager.putAll(Map.of("batch1", "{\"value\": 1}", "batch2", "{\"value\": 2}"));
+
+        Map<String, Object> internalCache = getInternalCacheMap();
+        assertEquals("{\"value\": 1}", getJsonData(internalCache.get("cache_batch1")));
+        assertEquals("{\"value\": 2}", getJsonData(internalCache.get("cache_batch2")));
+
+        mockedCacheManager.verify(() -> saveCacheToFileMethod.invoke(null), times(1));
+    }
+
+    @Test
+    void removeAll_removesExistingItemsWithSingleSave() throws Exception {
+        Map<String, Object> internalCache = getInternalCacheMap();
+        internalCache.put("cache_batch1", createCacheEntry("{}", System.currentTimeMillis()));
+        internalCache.put("cache_batch2", createCacheEntry("{}", System.currentTimeMillis()));
+        setInternalCacheMap(internalCache);
+
+        int removed = CacheManager.removeAll(List.of("batch1", "batch2", "missing"));
+
+        assertEquals(2, removed);
+        assertTrue(getInternalCacheMap().isEmpty());
+
+        mockedCacheManager.verify(() -> saveCacheToFileMethod.invoke(null), times(1));
+    }
+
     @Test
     void clear_removesOnlyPrefixedItems() throws Exception {
         String prefixedKey1 = "cache_item1"; 
@@ -312,4 +339,19 @@ class CacheManagerTest {
          setInternalCacheMap(internalCache);
          assertEquals(0, CacheManager.getCount());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getEntries_returnsUnexpiredItemsMatchingPrefix() throws Exception {
+        Field prefixField = CacheManager.class.getDeclaredField("CACHE_PREFIX");
+        prefixField.setAccessible(true);
+        String prefix = (String) prefixField.get(null);
+        Map<String, Object> internalCache = new ConcurrentHashMap<>();
+        internalCache.put(prefix + "search_portal", createCacheEntry("[1]", System.currentTimeMillis()));
+        internalCache.put(prefix + "search_old", createCacheEntry("[2]", System.currentTimeMillis() - 25L * 60 * 60 * 1000));
+        internalCache.put(prefix + "topGames", createCacheEntry("[3]", System.currentTimeMillis()));
+        setInternalCacheMap(internalCache);
+
+        assertEquals(Map.of("search_portal", "[1]"), CacheManager.getEntries("search_"));
+        assertEquals(2, CacheManager.getEntries("").size());
+    }
+}
@@ -0,0 +1,122 @@
+package org.alexw.gamecurator.misc;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CompressedBodyHandlerTest {
+
+    private static final String BODY = "{\"results\":[" + "{\"id\":1,\"name\":\"Game\"},".repeat(200) + "{\"id\":2}]}";
+
+    private static byte[] gzip(String text) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzipOut = new GZIPOutputStream(out)) {
+            gzipOut.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] deflate(String text, boolean raw) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (DeflaterOutputStream deflateOut = new DeflaterOutputStream(out, new Deflater(Deflater.DEFAULT_COMPRESSION, raw))) {
+            deflateOut.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+        return out.toByteArray();
+    }
+
+    private static String decodeToString(byte[] body, String encoding) throws IOException {
+        InputStream decoded = CompressedBodyHandler.decode(new ByteArrayInputStream(body), encoding);
+        return CompressedBodyHandler.readString(decoded);
+    }
+
+    @Test
+    void decode_gzipBody_returnsOriginalText() throws IOException {
+        assertEquals(BODY, decodeToString(gzip(BODY), "gzip"));
+    }
+
+    @Test
+    void decode_zlibDeflateBody_returnsOriginalText() throws IOException {
+        assertEquals(BODY, decodeToString(deflate(BODY, false), "deflate"));
+    }
+
+    @Test
+    void decode_rawDeflateBody_returnsOriginalText() throws IOException {
+        assertEquals(BODY, decodeToString(deflate(BODY, true), "Deflate"));
+    }
+
+    @Test
+    void decode_identityOrMissingEncoding_passesBodyThrough() throws IOException {
+        byte[] plain = BODY.getBytes(StandardCharsets.UTF_8);
+        assertEquals(BODY, decodeToString(plain, "identity"));
+        assertEquals(BODY, decodeToString(plain, null));
+    }
+
+    @Test
+    void decode_gzipBody_countsWireAndDecodedBytesSeparately() throws IOException {
+        byte[] compressed = gzip(BODY);
+        long wireBefore = CompressedBodyHandler.getWireBytes();
+        long decodedBefore = CompressedBodyHandler.getDecodedBytes();
+
+        decodeToString(compressed, "gzip");
+
+        assertEquals(compressed.length, CompressedBodyHandler.getWireBytes() - wireBefore);
+        assertEquals(BODY.getBytes(StandardCharsets.UTF_8).length, CompressedBodyHandler.getDecodedBytes() - decodedBefore);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void consume_cancelledWhileReadingBody_closesStream() throws Exception {
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch closed = new CountDownLatch(1);
+        InputStream stalledBody = new InputStream() {
+            @Override
+            public int read() throws IOException {
+                reading.countDown();
+                try {
+                    closed.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                throw new IOException("closed");
+            }
+
+            @Override
+            public void close() {
+                closed.countDown();
+            }
+        };
+        HttpResponse<InputStream> response = mock(HttpResponse.class);
+        when(response.body()).thenReturn(stalledBody);
+        CompletableFuture<HttpResponse<InputStream>> exchange = new CompletableFuture<>();
+        CompletableFuture<String> readerDone = new CompletableFuture<>();
+
+        CompletableFuture<String> body = CompressedBodyHandler.consume(exchange, r -> {
+            try {
+                return CompressedBodyHandler.readString(r.body());
+            } catch (IOException e) {
+                readerDone.complete(e.getMessage());
+                return null;
+            }
+        });
+        CompletableFuture.runAsync(() -> exchange.complete(response));
+        assertTrue(reading.await(5, TimeUnit.SECONDS));
+        body.cancel(true);
+
+        assertEquals("closed", readerDone.get(5, TimeUnit.SECONDS));
+    }
+}
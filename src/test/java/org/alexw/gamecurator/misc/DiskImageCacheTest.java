@@ -0,0 +1,87 @@
+package org.alexw.gamecurator.misc;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DiskImageCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static byte[] bytes(int size, int fill) {
+        byte[] data = new byte[size];
+        java.util.Arrays.fill(data, (byte) fill);
+        return data;
+    }
+
+    @Test
+    void put_thenGet_returnsStoredBytes() {
+        DiskImageCache cache = new DiskImageCache(tempDir, 1000);
+        cache.put("https://media.rawg.io/a.jpg", bytes(100, 1));
+
+        assertArrayEquals(bytes(100, 1), cache.get("https://media.rawg.io/a.jpg"));
+        assertNull(cache.get("https://media.rawg.io/missing.jpg"));
+        assertEquals(100, cache.getSizeBytes());
+    }
+
+    @Test
+    void put_overBudget_evictsLeastRecentlyUsedEntry() {
+        DiskImageCache cache = new DiskImageCache(tempDir, 250);
+        cache.put("a", bytes(100, 1));
+        cache.put("b", bytes(100, 2));
+        cache.get("a");
+
+        cache.put("c", bytes(100, 3));
+
+        assertTrue(cache.contains("a"));
+        assertFalse(cache.contains("b"));
+        assertTrue(cache.contains("c"));
+        assertEquals(200, cache.getSizeBytes());
+        assertFalse(Files.exists(tempDir.resolve(DiskImageCache.fileNameFor("b"))));
+    }
+
+    @Test
+    void constructor_withExistingDirectory_reloadsEntriesFromDisk() {
+        DiskImageCache first = new DiskImageCache(tempDir, 1000);
+        first.put("a", bytes(50, 1));
+        first.put("b", bytes(70, 2));
+
+        DiskImageCache reloaded = new DiskImageCache(tempDir, 1000);
+
+        assertEquals(2, reloaded.getCount());
+        assertEquals(120, reloaded.getSizeBytes());
+        assertArrayEquals(bytes(70, 2), reloaded.get("b"));
+    }
+
+    @Test
+    void clear_removesAllFiles() {
+        DiskImageCache cache = new DiskImageCache(tempDir, 1000);
+        cache.put("a", bytes(10, 1));
+
+        cache.clear();
+
+        assertEquals(0, cache.getCount());
+        assertNull(cache.get("a"));
+        assertFalse(Files.exists(tempDir.resolve(DiskImageCache.fileNameFor("a"))));
+    }
+
+    @Test
+    void put_whenMoveFails_removesTemporaryFile() throws Exception {
+        DiskImageCache cache = new DiskImageCache(tempDir, 1000);
+        Path blocked = tempDir.resolve(DiskImageCache.fileNameFor("a"));
+        Files.createDirectories(blocked.resolve("occupied"));
+
+        cache.put("a", bytes(100, 1));
+
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertTrue(files.noneMatch(file -> file.getFileName().toString().endsWith(".tmp")));
+        }
+        assertEquals(0, cache.getSizeBytes());
+    }
+}
@@ -0,0 +1,25 @@
+package org.alexw.gamecurator.misc;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImageServiceTest {
+
+    @Test
+    void toThumbnailUrl_rawgMediaUrl_insertsCropSegment() {
+        assertEquals("https://media.rawg.io/media/crop/600/400/games/456/456dea5e1c7e3cd07060c14e96612001.jpg",
+                ImageService.toThumbnailUrl("https://media.rawg.io/media/games/456/456dea5e1c7e3cd07060c14e96612001.jpg"));
+    }
+
+    @Test
+    void toThumbnailUrl_alreadyResizedOrForeignUrl_isUnchanged() {
+        String cropped = "https://media.rawg.io/media/crop/600/400/games/456/a.jpg";
+        String resized = "https://media.rawg.io/media/resize/420/-/games/456/a.jpg";
+        String foreign = "https://example.com/media/games/a.jpg";
+
+        assertEquals(cropped, ImageService.toThumbnailUrl(cropped));
+        assertEquals(resized, ImageService.toThumbnailUrl(resized));
+        assertEquals(foreign, ImageService.toThumbnailUrl(foreign));
+    }
+}
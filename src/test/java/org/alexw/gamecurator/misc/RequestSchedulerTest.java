@@ -0,0 +1,95 @@
+package org.alexw.gamecurator.misc;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestSchedulerTest {
+
+    private RequestScheduler scheduler;
+    private List<String> started;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new RequestScheduler();
+        started = new ArrayList<>();
+    }
+
+    private CompletableFuture<String> submitPending(RequestScheduler.Lane lane, String name, CompletableFuture<String> inFlight) {
+        return scheduler.submit(lane, () -> {
+            synchronized (started) {
+                started.add(name);
+            }
+            return inFlight;
+        });
+    }
+
+    @Test
+    void submit_beyondLaneLimit_queuesUntilSlotFrees() {
+        scheduler.setMaxConcurrent(RequestScheduler.Lane.VISIBLE_IMAGE, 1);
+        CompletableFuture<String> first = new CompletableFuture<>();
+        CompletableFuture<String> second = new CompletableFuture<>();
+
+        CompletableFuture<String> firstResult = submitPending(RequestScheduler.Lane.VISIBLE_IMAGE, "first", first);
+        CompletableFuture<String> secondResult = submitPending(RequestScheduler.Lane.VISIBLE_IMAGE, "second", second);
+
+        assertEquals(List.of("first"), started);
+        assertEquals(1, scheduler.getQueuedCount(RequestScheduler.Lane.VISIBLE_IMAGE));
+
+        first.complete("a");
+        assertEquals("a", firstResult.join());
+        assertEquals(List.of("first", "second"), started);
+
+        second.complete("b");
+        assertEquals("b", secondResult.join());
+        assertEquals(0, scheduler.getRunningCount(RequestScheduler.Lane.VISIBLE_IMAGE));
+    }
+
+    @Test
+    void submit_speculativeWork_waitsWhileInteractiveRequestIsInFlight() {
+        CompletableFuture<String> interactive = new CompletableFuture<>();
+        submitPending(RequestScheduler.Lane.INTERACTIVE, "interactive", interactive);
+        CompletableFuture<String> prefetchResult = submitPending(RequestScheduler.Lane.PREFETCH, "prefetch", CompletableFuture.completedFuture("p"));
+
+        assertEquals(List.of("interactive"), started);
+        assertFalse(prefetchResult.isDone());
+
+        interactive.complete("i");
+
+        assertEquals(List.of("interactive", "prefetch"), started);
+        assertEquals("p", prefetchResult.join());
+    }
+
+    @Test
+    void submit_visibleImageWork_isNotHeldBackByInteractiveRequests() {
+        submitPending(RequestScheduler.Lane.INTERACTIVE, "interactive", new CompletableFuture<>());
+        submitPending(RequestScheduler.Lane.VISIBLE_IMAGE, "image", new CompletableFuture<>());
+
+        assertEquals(List.of("interactive", "image"), started);
+    }
+
+    @Test
+    void cancelOnNavigation_cancelsQueuedAndInFlightSpeculativeWork() {
+        scheduler.setMaxConcurrent(RequestScheduler.Lane.VISIBLE_IMAGE, 1);
+        CompletableFuture<String> inFlight = new CompletableFuture<>();
+        CompletableFuture<String> runningResult = submitPending(RequestScheduler.Lane.VISIBLE_IMAGE, "running", inFlight);
+        CompletableFuture<String> queuedResult = submitPending(RequestScheduler.Lane.VISIBLE_IMAGE, "queued", new CompletableFuture<>());
+        CompletableFuture<String> interactive = new CompletableFuture<>();
+        CompletableFuture<String> interactiveResult = submitPending(RequestScheduler.Lane.INTERACTIVE, "interactive", interactive);
+
+        scheduler.cancelOnNavigation();
+
+        assertTrue(runningResult.isCancelled());
+        assertTrue(queuedResult.isCancelled());
+        assertTrue(inFlight.isCancelled());
+        assertFalse(interactiveResult.isDone());
+        assertEquals(0, scheduler.getQueuedCount(RequestScheduler.Lane.VISIBLE_IMAGE));
+        assertEquals(0, scheduler.getRunningCount(RequestScheduler.Lane.VISIBLE_IMAGE));
+        assertFalse(started.contains("queued"));
+    }
+}
@@ -0,0 +1,54 @@
+package org.alexw.gamecurator.misc;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TitleMatcherTest {
+
+    private static JsonArray candidates(String... names) {
+        JsonArray results = new JsonArray();
+        for (int i = 0; i < names.length; i++) {
+            JsonObject game = new JsonObject();
+            game.addProperty("id", i + 1);
+            game.addProperty("name", names[i]);
+            results.add(game);
+        }
+        return results;
+    }
+
+    @Test
+    void normalize_stripsSymbolsAccentsAndRomanNumerals() {
+        assertEquals("pokemon legends arceus", TitleMatcher.normalize("Pokémon™ Legends: Arceus"));
+        assertEquals("final fantasy 7", TitleMatcher.normalize("FINAL FANTASY VII"));
+        assertEquals("ratchet and clank", TitleMatcher.normalize("Ratchet & Clank"));
+    }
+
+    @Test
+    void bestMatch_prefersClosestTitleOverSearchOrder() {
+        JsonArray results = candidates("The Witcher 3: Wild Hunt - Blood and Wine", "The Witcher 3: Wild Hunt", "The Witcher");
+
+        JsonObject match = new TitleMatcher().bestMatch("witcher 3 wild hunt", results);
+
+        assertNotNull(match);
+        assertEquals(2, match.get("id").getAsInt());
+    }
+
+    @Test
+    void bestMatch_toleratesTyposAndNumeralStyles() {
+        JsonArray results = candidates("Portal", "Portal 2", "Portal Knights");
+
+        assertEquals(2, new TitleMatcher().bestMatch("Portal II", results).get("id").getAsInt());
+        assertEquals(1, new TitleMatcher().bestMatch("Protal", results).get("id").getAsInt());
+    }
+
+    @Test
+    void bestMatch_unrelatedCandidates_returnsNull() {
+        JsonArray results = candidates("Stardew Valley", "Hades");
+
+        assertNull(new TitleMatcher().bestMatch("Celeste", results));
+        assertNull(new TitleMatcher().bestMatch("   ", results));
+    }
+}
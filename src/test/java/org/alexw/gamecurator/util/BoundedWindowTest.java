@@ -0,0 +1,75 @@
+package org.alexw.gamecurator.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedWindowTest {
+
+    @Test
+    void run_manyAlreadyCompletedFutures_finishesWithoutDeepRecursion() throws Exception {
+        List<Integer> items = IntStream.range(0, 50_000).boxed().collect(Collectors.toList());
+        AtomicInteger reported = new AtomicInteger();
+
+        CompletableFuture<Void> done = BoundedWindow.run(items, 4, CompletableFuture::completedFuture,
+                (index, item, value, error) -> {
+                    assertEquals(item, value);
+                    reported.incrementAndGet();
+                });
+
+        done.get(10, TimeUnit.SECONDS);
+        assertEquals(items.size(), reported.get());
+    }
+
+    @Test
+    void run_neverHasMoreThanWidthInFlight() throws Exception {
+        List<CompletableFuture<String>> started = new ArrayList<>();
+        List<String> items = List.of("a", "b", "c", "d", "e");
+
+        CompletableFuture<Void> done = BoundedWindow.run(items, 2, item -> {
+            CompletableFuture<String> future = new CompletableFuture<>();
+            started.add(future);
+            return future;
+        }, (index, item, value, error) -> { });
+
+        assertEquals(2, started.size());
+        started.get(0).complete("a");
+        assertEquals(3, started.size());
+        started.get(1).completeExceptionally(new RuntimeException("failed"));
+        started.get(2).complete("c");
+        assertEquals(5, started.size());
+        started.get(3).complete("d");
+        assertFalse(done.isDone());
+        started.get(4).complete("e");
+        done.get(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void run_callbackThrows_failsAndCancelsInFlightItems() {
+        List<CompletableFuture<String>> started = new ArrayList<>();
+
+        CompletableFuture<Void> done = BoundedWindow.run(List.of("a", "b", "c"), 2, item -> {
+            CompletableFuture<String> future = new CompletableFuture<>();
+            started.add(future);
+            return future;
+        }, (index, item, value, error) -> {
+            throw new IllegalStateException("callback failed");
+        });
+
+        started.get(0).complete("a");
+
+        ExecutionException error = assertThrows(ExecutionException.class, () -> done.get(1, TimeUnit.SECONDS));
+        assertEquals("callback failed", error.getCause().getMessage());
+        assertTrue(started.get(1).isCancelled());
+        assertEquals(2, started.size());
+    }
+}
@@ -0,0 +1,49 @@
+package org.alexw.gamecurator.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntSetTest {
+
+    @Test
+    void of_duplicateAndUnsortedValues_keepsDistinctSortedValues() {
+        IntSet set = IntSet.of(42, 7, 42, 19, 7);
+
+        assertEquals(3, set.size());
+        assertArrayEquals(new int[]{7, 19, 42}, set.toArray());
+        assertTrue(set.contains(19));
+        assertFalse(set.contains(20));
+    }
+
+    @Test
+    void with_newValue_returnsCopyAndLeavesOriginalUntouched() {
+        IntSet original = IntSet.of(1, 5);
+
+        IntSet updated = original.with(3);
+
+        assertArrayEquals(new int[]{1, 3, 5}, updated.toArray());
+        assertFalse(original.contains(3));
+        assertSame(updated, updated.with(3));
+    }
+
+    @Test
+    void without_existingValue_returnsCopyAndLeavesOriginalUntouched() {
+        IntSet original = IntSet.of(1, 3, 5);
+
+        IntSet updated = original.without(3);
+
+        assertArrayEquals(new int[]{1, 5}, updated.toArray());
+        assertTrue(original.contains(3));
+        assertSame(updated, updated.without(3));
+        assertTrue(IntSet.of(9).without(9).isEmpty());
+    }
+
+    @Test
+    void toSet_returnsBoxedEquivalent() {
+        assertEquals(Set.of(2, 4, 6), IntSet.of(6, 4, 2).toSet());
+        assertTrue(IntSet.of().toSet().isEmpty());
+    }
+}
@@ -0,0 +1,80 @@
+package org.alexw.gamecurator.view;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameFilterIndexTest {
+
+    private static JsonObject game(Integer playtime, String... genres) {
+        JsonObject game = new JsonObject();
+        if (playtime != null) {
+            game.addProperty("playtime", playtime);
+        }
+        JsonArray genreArray = new JsonArray();
+        for (String genre : genres) {
+            JsonObject genreObject = new JsonObject();
+            genreObject.addProperty("name", genre);
+            genreArray.add(genreObject);
+        }
+        game.add("genres", genreArray);
+        return game;
+    }
+
+    private final List<JsonObject> games = List.of(
+            game(10, "Action", "RPG"),
+            game(40, "Puzzle"),
+            game(null, "Action"),
+            game(0, "Racing", "Sports")
+    );
+
+    @Test
+    void evaluate_noFilters_matchesEveryGame() {
+        GameFilterIndex index = GameFilterIndex.build(games);
+        boolean[] matches = new boolean[index.size()];
+
+        int count = index.evaluate(0L, false, GameFilterIndex.UNBOUNDED, GameFilterIndex.UNBOUNDED, matches);
+
+        assertEquals(4, count);
+        assertArrayEquals(new boolean[]{true, true, true, true}, matches);
+    }
+
+    @Test
+    void evaluate_genreFilter_matchesAnySelectedGenre() {
+        GameFilterIndex index = GameFilterIndex.build(games);
+        boolean[] matches = new boolean[index.size()];
+
+        int count = index.evaluate(index.genreMask(Set.of("RPG", "Sports")), true,
+                GameFilterIndex.UNBOUNDED, GameFilterIndex.UNBOUNDED, matches);
+
+        assertEquals(2, count);
+        assertArrayEquals(new boolean[]{true, false, false, true}, matches);
+    }
+
+    @Test
+    void evaluate_playtimeRange_excludesGamesWithoutPlaytime() {
+        GameFilterIndex index = GameFilterIndex.build(games);
+        boolean[] matches = new boolean[index.size()];
+
+        int count = index.evaluate(0L, false, 0, 20, matches);
+
+        assertEquals(2, count);
+        assertArrayEquals(new boolean[]{true, false, false, true}, matches);
+    }
+
+    @Test
+    void evaluate_unknownSelectedGenre_matchesNothing() {
+        GameFilterIndex index = GameFilterIndex.build(games);
+        boolean[] matches = new boolean[index.size()];
+
+        int count = index.evaluate(index.genreMask(Set.of("Card")), true,
+                GameFilterIndex.UNBOUNDED, GameFilterIndex.UNBOUNDED, matches);
+
+        assertEquals(0, count);
+    }
+}
@@ -0,0 +1,72 @@
+package org.alexw.gamecurator.view;
+
+import javafx.application.Platform;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.image.ImageView;
+import javafx.scene.text.Text;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+public class GameItemRowBenchmark {
+
+    private static final int WARMUP_ROWS = 300;
+    private static final int MEASURED_ROWS = 1000;
+
+    private static GameItemNodeFactory.GameItemRow createRowFromFxml() throws IOException {
+        FXMLLoader loader = new FXMLLoader(GameItemRowBenchmark.class.getResource("/org/alexw/gamecurator/GameItem.fxml"));
+        Parent gameItemRoot = loader.load();
+
+        return new GameItemNodeFactory.GameItemRow(gameItemRoot,
+                (ImageView) loader.getNamespace().get("gameImageView"),
+                (Label) loader.getNamespace().get("gameNameLabel"),
+                (Label) loader.getNamespace().get("gameReleaseLabel"),
+                (Text) loader.getNamespace().get("gameDetailsText"),
+                (Button) loader.getNamespace().get("libraryButton"),
+                (Button) loader.getNamespace().get("shareButton"));
+    }
+
+    public static void main(String[] args) throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        Platform.startup(started::countDown);
+        started.await();
+
+        GameItemNodeFactory factory = new GameItemNodeFactory(null, null);
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        Platform.runLater(() -> {
+            try {
+                for (int i = 0; i < WARMUP_ROWS; i++) {
+                    createRowFromFxml();
+                    factory.createRow();
+                }
+
+                long fxmlStart = System.nanoTime();
+                for (int i = 0; i < MEASURED_ROWS; i++) {
+                    createRowFromFxml();
+                }
+                long fxmlNanos = System.nanoTime() - fxmlStart;
+
+                long programmaticStart = System.nanoTime();
+                for (int i = 0; i < MEASURED_ROWS; i++) {
+                    factory.createRow();
+                }
+                long programmaticNanos = System.nanoTime() - programmaticStart;
+
+                System.out.printf("FXML rows:         %d in %.1f ms (%.1f us/row)%n",
+                        MEASURED_ROWS, fxmlNanos / 1e6, fxmlNanos / 1e3 / MEASURED_ROWS);
+                System.out.printf("Programmatic rows: %d in %.1f ms (%.1f us/row)%n",
+                        MEASURED_ROWS, programmaticNanos / 1e6, programmaticNanos / 1e3 / MEASURED_ROWS);
+                System.out.printf("Speedup: %.1fx%n", (double) fxmlNanos / programmaticNanos);
+                done.complete(null);
+            } catch (Exception e) {
+                done.completeExceptionally(e);
+            }
+        });
+        done.join();
+        Platform.exit();
+    }
+}